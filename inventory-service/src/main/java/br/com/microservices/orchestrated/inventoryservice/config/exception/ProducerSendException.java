@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.inventoryservice.config.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProducerSendException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProducerSendException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -5,6 +5,9 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public class ValidationException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
     public ValidationException(String message) {
         super(message);
     }
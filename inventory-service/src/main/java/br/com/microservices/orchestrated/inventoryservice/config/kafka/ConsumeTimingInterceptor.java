@@ -0,0 +1,57 @@
+package br.com.microservices.orchestrated.inventoryservice.config.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every listener invocation as {@code saga.step.consume}, tagged by topic and outcome, and records how long the
+ * record waited in the topic as {@code saga.step.queue}, tagged by topic and lane. The interceptor callbacks run on the
+ * consumer thread, so the start time is kept in a thread local.
+ */
+@RequiredArgsConstructor
+public class ConsumeTimingInterceptor implements RecordInterceptor<String, byte[]> {
+
+    public static final String FORWARD_LANE = "forward";
+    public static final String COMPENSATION_LANE = "compensation";
+
+    private static final ThreadLocal<Long> STARTED_AT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final String lane;
+
+    @Override
+    public ConsumerRecord<String, byte[]> intercept(ConsumerRecord<String, byte[]> record,
+                                                    Consumer<String, byte[]> consumer) {
+        STARTED_AT.set(System.nanoTime());
+        meterRegistry
+                .timer("saga.step.queue", "topic", record.topic(), "lane", lane)
+                .record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<String, byte[]> record, Consumer<String, byte[]> consumer) {
+        this.record(record, "success");
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, byte[]> record, Exception exception, Consumer<String, byte[]> consumer) {
+        this.record(record, "failure");
+    }
+
+    private void record(ConsumerRecord<String, byte[]> record, String outcome) {
+        var startedAt = STARTED_AT.get();
+        if (startedAt == null) {
+            return;
+        }
+        STARTED_AT.remove();
+        meterRegistry
+                .timer("saga.step.consume", "topic", record.topic(), "outcome", outcome)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,27 +1,48 @@
 package br.com.microservices.orchestrated.inventoryservice.config.kafka;
 
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ProducerBackPressureException;
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.inventoryservice.config.tracing.OrderIdListenerObservationConvention;
+import br.com.microservices.orchestrated.inventoryservice.config.tracing.OrderIdTemplateObservationConvention;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaTransport;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static br.com.microservices.orchestrated.inventoryservice.config.threads.VirtualThreadConfig.COMPENSATION_LISTENER_TASK_EXECUTOR;
+import static br.com.microservices.orchestrated.inventoryservice.config.threads.VirtualThreadConfig.LISTENER_TASK_EXECUTOR;
+
 @EnableKafka
 @RequiredArgsConstructor
 @Configuration
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
+    public static final String FORWARD_LISTENER_ID = "forward-listener";
+    public static final String COMPENSATION_LISTENER_ID = "compensation-listener";
+
     private static final Integer REPLICA_COUNT = 1;
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -30,16 +51,30 @@ public class KafkaConfig {
     private String groupId;
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffSetReset;
+    @Value("${spring.kafka.consumer.isolation-level}")
+    private String isolationLevel;
+    @Value("${spring.kafka.topic.partitions}")
+    private Integer partitionCount;
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer concurrency;
+    @Value("${spring.kafka.listener.retry.backoff-ms}")
+    private long retryBackoffMs;
+    @Value("${spring.kafka.listener.retry.max-backoff-ms}")
+    private long retryMaxBackoffMs;
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
+    @Value("${spring.kafka.topic.orchestrator-compensation}")
+    private String orchestratorCompensationTopic;
     @Value("${spring.kafka.topic.inventory-success}")
     private String inventorySuccessTopic;
     @Value("${spring.kafka.topic.inventory-fail}")
     private String inventoryFailTopic;
+    @Value("${saga.transport}")
+    private ESagaTransport transport;
 
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
     }
 
@@ -48,13 +83,74 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffSetReset);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            @Qualifier(LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> listenerTaskExecutor,
+            MeterRegistry meterRegistry) {
+        var factory = this.buildContainerFactory(consumerFactory);
+        listenerTaskExecutor.ifAvailable(factory.getContainerProperties()::setListenerTaskExecutor);
+        factory.setRecordInterceptor(new ConsumeTimingInterceptor(meterRegistry, ConsumeTimingInterceptor.FORWARD_LANE));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> compensationKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            @Qualifier(COMPENSATION_LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> compensationTaskExecutor,
+            MeterRegistry meterRegistry) {
+        var factory = this.buildContainerFactory(consumerFactory);
+        factory.getContainerProperties().setListenerTaskExecutor(compensationTaskExecutor
+                .getIfAvailable(() -> new SimpleAsyncTaskExecutor(COMPENSATION_LISTENER_ID + "-")));
+        factory.setRecordInterceptor(new ConsumeTimingInterceptor(meterRegistry, ConsumeTimingInterceptor.COMPENSATION_LANE));
+        return factory;
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, byte[]> buildContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setAutoStartup(ESagaTransport.KAFKA.equals(transport));
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setObservationConvention(new OrderIdListenerObservationConvention());
+        factory.setCommonErrorHandler(this.errorHandler());
+        return factory;
+    }
+
+    /**
+     * A record whose reply could not be sent is retried with an exponential back-off until it goes through, instead of
+     * being skipped after the default ten attempts. Other failures keep the default handling.
+     */
+    private DefaultErrorHandler errorHandler() {
+        var errorHandler = new DefaultErrorHandler();
+        errorHandler.setBackOffFunction((record, exception) -> isProducerFailure(exception) ? this.producerBackOff() : null);
+        return errorHandler;
+    }
+
+    private BackOff producerBackOff() {
+        var backOff = new ExponentialBackOff(retryBackoffMs, ExponentialBackOff.DEFAULT_MULTIPLIER);
+        backOff.setMaxInterval(retryMaxBackoffMs);
+        return backOff;
+    }
+
+    private static boolean isProducerFailure(Throwable exception) {
+        for (var cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProducerBackPressureException || cause instanceof ProducerSendException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory() {
         return new DefaultKafkaProducerFactory<>(producerProps());
     }
 
@@ -62,20 +158,23 @@ public class KafkaConfig {
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
-        return new KafkaTemplate<>(producerFactory);
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        var template = new KafkaTemplate<>(producerFactory);
+        template.setObservationEnabled(true);
+        template.setObservationConvention(new OrderIdTemplateObservationConvention());
+        return template;
     }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount)
                 .build();
     }
 
@@ -84,6 +183,11 @@ public class KafkaConfig {
         return this.buildTopic(orchestratorTopic);
     }
 
+    @Bean
+    public NewTopic orchestratorCompensationTopic() {
+        return this.buildTopic(orchestratorCompensationTopic);
+    }
+
     @Bean
     public NewTopic inventorySuccessTopic() {
         return this.buildTopic(inventorySuccessTopic);
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.inventoryservice.config.tracing;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+import org.springframework.kafka.support.micrometer.KafkaRecordReceiverContext;
+
+public class OrderIdListenerObservationConvention
+        extends KafkaListenerObservation.DefaultKafkaListenerObservationConvention {
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(KafkaRecordReceiverContext context) {
+        var key = context.getRecord().key();
+        return key == null ? KeyValues.empty() : KeyValues.of("saga.order.id", key.toString());
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.inventoryservice.config.tracing;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.kafka.support.micrometer.KafkaRecordSenderContext;
+import org.springframework.kafka.support.micrometer.KafkaTemplateObservation;
+
+public class OrderIdTemplateObservationConvention
+        extends KafkaTemplateObservation.DefaultKafkaTemplateObservationConvention {
+
+    @Override
+    public KeyValues getHighCardinalityKeyValues(KafkaRecordSenderContext context) {
+        var key = context.getRecord().key();
+        return key == null ? KeyValues.empty() : KeyValues.of("saga.order.id", key.toString());
+    }
+}
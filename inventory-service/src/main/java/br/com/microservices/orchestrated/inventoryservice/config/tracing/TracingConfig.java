@@ -0,0 +1,26 @@
+package br.com.microservices.orchestrated.inventoryservice.config.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(value = "tracing.file.enabled", havingValue = "true")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file.path}") String path, ObjectMapper mapper) {
+        return new FileSpanExporter(Path.of(path), mapper);
+    }
+
+    @Bean
+    public ContextSnapshotFactory contextSnapshotFactory() {
+        return ContextSnapshotFactory.builder().build();
+    }
+}
@@ -0,0 +1,104 @@
+package br.com.microservices.orchestrated.inventoryservice.config.transport;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Binds the existing {@link KafkaListener} methods to the {@link InMemoryBus}, resolving their topics and concurrency
+ * the same way the Kafka containers would, so the listener code is shared by both transports. Record listeners receive
+ * the payload, batch listeners a singleton list and topic headers the topic name.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "saga.transport", havingValue = "IN_MEMORY")
+public class InMemoryListenerRegistrar implements SmartInitializingSingleton {
+
+    private static final String DEFAULT_CONCURRENCY = "${spring.kafka.listener.concurrency}";
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final InMemoryBus bus;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (var beanName : beanFactory.getBeanNamesForType(Object.class, false, false)) {
+            var type = beanFactory.getType(beanName);
+            if (type == null) {
+                continue;
+            }
+            MethodIntrospector
+                    .selectMethods(ClassUtils.getUserClass(type), (MethodIntrospector.MetadataLookup<KafkaListener>)
+                            method -> AnnotatedElementUtils.findMergedAnnotation(method, KafkaListener.class))
+                    .forEach((method, listener) -> this.register(beanFactory.getBean(beanName), method, listener));
+        }
+    }
+
+    private void register(Object bean, Method method, KafkaListener listener) {
+        ReflectionUtils.makeAccessible(method);
+        var binders = Arrays
+                .stream(method.getParameters())
+                .map(parameter -> binderOf(method, parameter))
+                .toList();
+        var concurrency = Integer.parseInt(this.resolve(
+                ObjectUtils.isEmpty(listener.concurrency()) ? DEFAULT_CONCURRENCY : listener.concurrency()));
+        for (var topicExpression : listener.topics()) {
+            var topic = this.resolve(topicExpression);
+            bus.subscribe(topic, concurrency, payload -> invoke(bean, method, argumentsOf(binders, topic, payload)));
+        }
+    }
+
+    private String resolve(String expression) {
+        return beanFactory.resolveEmbeddedValue(expression);
+    }
+
+    private static BiFunction<String, byte[], Object> binderOf(Method method, Parameter parameter) {
+        if (byte[].class.equals(parameter.getType())) {
+            return (topic, payload) -> payload;
+        }
+        if (List.class.equals(parameter.getType())) {
+            return (topic, payload) -> List.of(payload);
+        }
+        if (String.class.equals(parameter.getType()) && parameter.isAnnotationPresent(Header.class)) {
+            return (topic, payload) -> topic;
+        }
+        throw new IllegalStateException("Unsupported in-memory listener parameter %s on %s"
+                .formatted(parameter.getName(), method));
+    }
+
+    private static Object[] argumentsOf(List<BiFunction<String, byte[], Object>> binders, String topic, byte[] payload) {
+        var arguments = new Object[binders.size()];
+        for (var index = 0; index < arguments.length; index++) {
+            arguments[index] = binders.get(index).apply(topic, payload);
+        }
+        return arguments;
+    }
+
+    private static void invoke(Object bean, Method method, Object[] arguments) {
+        try {
+            method.invoke(bean, arguments);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,36 +2,44 @@ package br.com.microservices.orchestrated.inventoryservice.core.consumer;
 
 
 import br.com.microservices.orchestrated.inventoryservice.core.service.InventoryService;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import static br.com.microservices.orchestrated.inventoryservice.config.kafka.KafkaConfig.COMPENSATION_LISTENER_ID;
+import static br.com.microservices.orchestrated.inventoryservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
 @Slf4j
 @Component
 @AllArgsConstructor
 public class InventoryConsumer {
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final InventoryService inventoryService;
 
     @KafkaListener(
+            id = FORWARD_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.inventory-success}"
+            topics = "${spring.kafka.topic.inventory-success}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.inventory-success:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerInventorySuccessEvent(String payload) {
-        log.info("Receiving event {} from inventory-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerInventorySuccessEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from inventory-success topic", event);
         this.inventoryService.updateInventory(event);
     }
 
     @KafkaListener(
+            id = COMPENSATION_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.inventory-fail}"
+            topics = "${spring.kafka.topic.inventory-fail}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.inventory-fail:${spring.kafka.listener.concurrency}}",
+            containerFactory = "compensationKafkaListenerContainerFactory"
     )
-    public void consumerInventoryFailEvent(String payload) {
-        log.info("Receiving event {} from product-validation-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerInventoryFailEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from product-validation-fail topic", event);
         this.inventoryService.rollbackInventory(event);
     }
 }
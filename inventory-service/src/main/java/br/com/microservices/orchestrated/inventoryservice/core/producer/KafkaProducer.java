@@ -1,27 +1,159 @@
 package br.com.microservices.orchestrated.inventoryservice.core.producer;
 
-import lombok.RequiredArgsConstructor;
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ProducerBackPressureException;
+import br.com.microservices.orchestrated.inventoryservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.inventoryservice.config.transport.InMemoryBus;
+import br.com.microservices.orchestrated.inventoryservice.core.enums.ESagaStatus;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends are asynchronous but capped by {@code spring.kafka.producer.max-in-flight}: once the cap is reached the
+ * calling listener thread blocks, and fails with {@link ProducerBackPressureException} after
+ * {@code acquire-timeout-ms} so the record is redelivered instead of buffered without limit. A permit is held until
+ * the broker acknowledges the record or the bounded retries give up. With the in-memory transport events are handed to
+ * the {@link InMemoryBus} and the permit is released right away.
+ * <p>
+ * The calling listener thread waits for the final outcome and gets a {@link ProducerSendException} once the retries
+ * are exhausted, so the record it is handling is redelivered instead of its reply being lost.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class KafkaProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ContextSnapshotFactory contextSnapshotFactory;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService retryExecutor;
+    private final InMemoryBus inMemoryBus;
 
     @Value("${spring.kafka.topic.orchestrator}")
     private String orchestratorTopic;
+    @Value("${spring.kafka.topic.orchestrator-compensation}")
+    private String orchestratorCompensationTopic;
+
+    public KafkaProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                         ObjectProvider<InMemoryBus> inMemoryBus,
+                         MeterRegistry meterRegistry,
+                         ContextSnapshotFactory contextSnapshotFactory,
+                         @Value("${spring.kafka.producer.max-in-flight}") int maxInFlight,
+                         @Value("${spring.kafka.producer.acquire-timeout-ms}") long acquireTimeoutMs,
+                         @Value("${spring.kafka.producer.retry.max-attempts}") int maxAttempts,
+                         @Value("${spring.kafka.producer.retry.backoff-ms}") long backoffMs,
+                         @Value("${spring.kafka.producer.retry.max-backoff-ms}") long maxBackoffMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.contextSnapshotFactory = contextSnapshotFactory;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.inMemoryBus = inMemoryBus.getIfAvailable();
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "kafka-producer-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("saga.producer.in.flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
+
+    /**
+     * Successful replies go to the orchestrator topic; rollbacks and failures take the compensation lane so they are
+     * not queued behind forward traffic.
+     */
+    public void sendEvent(String key, byte[] payload, ESagaStatus status) {
+        var topic = ESagaStatus.SUCCESS.equals(status) ? orchestratorTopic : orchestratorCompensationTopic;
+        this.acquire(topic);
+        var outcome = new CompletableFuture<Void>();
+        this.send(key, payload, topic, 1, System.nanoTime(), contextSnapshotFactory.captureAll(), outcome);
+        this.await(outcome);
+    }
 
-    public void sendEvent(String payload) {
+    @PreDestroy
+    public void close() {
+        retryExecutor.shutdown();
+    }
+
+    private void await(CompletableFuture<Void> outcome) {
         try {
-            log.info("Sending event to topic {} with data {}", orchestratorTopic, payload);
-            kafkaTemplate.send(orchestratorTopic, payload);
+            outcome.get();
+        } catch (ExecutionException e) {
+            throw (ProducerSendException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProducerSendException("Interrupted while waiting for an event to be sent", e);
+        }
+    }
+
+    private void acquire(String topic) {
+        try {
+            if (inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        meterRegistry.counter("saga.producer.rejected", "topic", topic).increment();
+        throw new ProducerBackPressureException("Too many in-flight events for topic ".concat(topic));
+    }
+
+    private void send(String key, byte[] payload, String topic, int attempt, long startedAt, ContextSnapshot context,
+                      CompletableFuture<Void> outcome) {
+        try {
+            log.info("Sending event to topic {} with {} bytes", topic, payload.length);
+            if (inMemoryBus != null) {
+                inMemoryBus.publish(topic, key, payload);
+                this.complete(key, payload, topic, attempt, startedAt, context, outcome, null);
+                return;
+            }
+            kafkaTemplate
+                    .send(topic, key, payload)
+                    .whenComplete((result, ex) ->
+                            this.complete(key, payload, topic, attempt, startedAt, context, outcome, ex));
         } catch (Exception e) {
-            log.error("Error: trying to send data to topic {} with data {}: {}", orchestratorTopic, payload, e.getMessage());
+            this.complete(key, payload, topic, attempt, startedAt, context, outcome, e);
+        }
+    }
+
+    private void complete(String key, byte[] payload, String topic, int attempt, long startedAt,
+                          ContextSnapshot context, CompletableFuture<Void> outcome, Throwable ex) {
+        if (ex != null && attempt < maxAttempts && !retryExecutor.isShutdown()) {
+            var backoff = Math.min(backoffMs << Math.min(attempt - 1, 20), maxBackoffMs);
+            log.warn("Retrying send to topic {} in {}ms, attempt {} of {}", topic, backoff, attempt + 1, maxAttempts);
+            meterRegistry.counter("saga.producer.retries", "topic", topic).increment();
+            var retry = context.wrap(() -> this.send(key, payload, topic, attempt + 1, startedAt, context, outcome));
+            retryExecutor.schedule(retry, backoff, TimeUnit.MILLISECONDS);
+            return;
+        }
+        inFlight.release();
+        meterRegistry
+                .timer("saga.producer.send", "topic", topic, "outcome", ex == null ? "success" : "failure")
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            log.error("Error: trying to send data to topic {} with {} bytes", topic, payload.length, ex);
+            outcome.completeExceptionally(new ProducerSendException("Error: trying to send data to topic ".concat(topic), ex));
+            return;
         }
+        outcome.complete(null);
     }
 }
@@ -11,7 +11,7 @@ import br.com.microservices.orchestrated.inventoryservice.core.model.OrderInvent
 import br.com.microservices.orchestrated.inventoryservice.core.producer.KafkaProducer;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.IInventoryRepository;
 import br.com.microservices.orchestrated.inventoryservice.core.repository.IOrderInventoryRepository;
-import br.com.microservices.orchestrated.inventoryservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.inventoryservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,7 +25,7 @@ public class InventoryService {
 
     private static final String CURRENT_SOURCE = "INVENTORY_SERVICE";
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final KafkaProducer producer;
     private final IInventoryRepository inventoryRepository;
     private final IOrderInventoryRepository orderInventoryRepository;
@@ -40,7 +40,7 @@ public class InventoryService {
             log.error("Error trying update inventory: ".concat(e.getMessage()));
             this.handleFailCurrentExecuted(event, "Fail to update inventory: ".concat(e.getMessage()));
         }
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
     }
 
     public void rollbackInventory(Event event) {
@@ -53,7 +53,7 @@ public class InventoryService {
         } catch(Exception e) {
             addHistory(event, "Rollback not executed for inventory: ".concat(e.getMessage()));
         }
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
     }
 
     private void returnInventoryToPreviousValues(Event event) {
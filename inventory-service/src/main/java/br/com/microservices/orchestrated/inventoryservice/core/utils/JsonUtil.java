@@ -19,6 +19,22 @@ public class JsonUtil {
         }
     }
 
+    public byte[] toJsonBytes(Object object) {
+        try {
+            return mapper.writeValueAsBytes(object);
+        } catch (Exception e) {
+            return new byte[0];
+        }
+    }
+
+    public Event toEvent(byte[] json) {
+        try {
+            return mapper.readValue(json, Event.class);
+        } catch(Exception e) {
+            return null;
+        }
+    }
+
     public Event toEvent(String json) {
         try {
             return mapper.readValue(json, Event.class);
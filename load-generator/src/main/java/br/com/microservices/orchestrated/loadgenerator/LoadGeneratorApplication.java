@@ -0,0 +1,21 @@
+package br.com.microservices.orchestrated.loadgenerator;
+
+import br.com.microservices.orchestrated.loadgenerator.core.OrderLoadGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Drives a running order-service with synthetic orders and measures how long each saga takes to reach notify-ending.
+ */
+@SpringBootApplication
+public class LoadGeneratorApplication {
+
+    public static void main(String[] args) throws Exception {
+        var context = SpringApplication.run(LoadGeneratorApplication.class, args);
+        try {
+            context.getBean(OrderLoadGenerator.class).run();
+        } finally {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.microservices.orchestrated.loadgenerator.core;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows notify-ending from its current end with a throwaway consumer group, so only sagas finished during the run
+ * are seen. The payload is decoded with the orchestrator's codec, which accepts both JSON and binary events.
+ */
+@Slf4j
+@Component
+public class CompletionListener implements ConsumerSeekAware {
+
+    private final LatencyTracker tracker;
+    private final EventCodec eventCodec;
+    private final CountDownLatch assigned = new CountDownLatch(1);
+
+    public CompletionListener(LatencyTracker tracker, ObjectMapper objectMapper) {
+        this.tracker = tracker;
+        this.eventCodec = new EventCodec(new JsonUtil(objectMapper), ECodecFormat.JSON);
+    }
+
+    @KafkaListener(topics = "${spring.kafka.topic.notify-ending}")
+    public void consumeNotifyEndingEvent(ConsumerRecord<String, byte[]> record) {
+        var event = eventCodec.decode(record.value());
+        if (event == null || event.getOrderId() == null) {
+            log.warn("Ignoring undecodable notify-ending event with key {}", record.key());
+            return;
+        }
+        tracker.ended(event.getOrderId(), ESagaStatus.SUCCESS.equals(event.getStatus()));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+        assigned.countDown();
+    }
+
+    public boolean awaitAssignment(long timeoutSeconds) throws InterruptedException {
+        return assigned.await(timeoutSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.microservices.orchestrated.loadgenerator.core;
+
+public enum EOutcome {
+
+    SUCCESS,
+    FAIL,
+    REJECTED,
+    ACCEPTED
+}
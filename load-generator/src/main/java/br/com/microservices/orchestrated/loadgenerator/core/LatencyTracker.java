@@ -0,0 +1,170 @@
+package br.com.microservices.orchestrated.loadgenerator.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Matches order-service responses with notify-ending events by order id and records, per outcome, the time from the
+ * moment an order was <em>scheduled</em> to be sent until its saga ended. Measuring from the schedule rather than
+ * from the actual send keeps a stalled sender or a slow HTTP call from hiding queueing delay (coordinated omission).
+ * <p>
+ * Values are kept in microseconds; interval histograms go to {@code latency.hlog} and totals to one {@code .hgrm} file
+ * per outcome, both readable with the usual HdrHistogram tooling.
+ */
+@Slf4j
+@Component
+public class LatencyTracker {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final ConcurrentMap<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private final Map<EOutcome, Recorder> recorders = new EnumMap<>(EOutcome.class);
+    private final Map<EOutcome, Histogram> totals = new EnumMap<>(EOutcome.class);
+    private final LongAdder shed = new LongAdder();
+    private final Path outputDir;
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+    private HistogramLogWriter logWriter;
+
+    public LatencyTracker(@Value("${load-generator.output-dir}") String outputDir) {
+        this.outputDir = Path.of(outputDir);
+        for (var outcome : EOutcome.values()) {
+            recorders.put(outcome, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            totals.put(outcome, new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+        }
+    }
+
+    public synchronized void startMeasuring(long fromNanos) throws FileNotFoundException {
+        try {
+            Files.createDirectories(outputDir);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not create output directory ".concat(outputDir.toString()), ex);
+        }
+        var startMillis = System.currentTimeMillis();
+        logWriter = new HistogramLogWriter(new PrintStream(outputDir.resolve("latency.hlog").toFile()));
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(startMillis);
+        logWriter.setBaseTime(startMillis);
+        logWriter.outputLegend();
+        recorders.values().forEach(Recorder::reset);
+        measureFromNanos = fromNanos;
+    }
+
+    public void accepted(String orderId, long scheduledNanos) {
+        var now = System.nanoTime();
+        this.record(EOutcome.ACCEPTED, scheduledNanos, now);
+        tracked.compute(orderId, (id, current) -> {
+            if (current == null) {
+                return new Tracked(scheduledNanos, null, 0L);
+            }
+            this.record(current.outcome(), scheduledNanos, current.endedNanos());
+            return null;
+        });
+    }
+
+    public void rejected(long scheduledNanos) {
+        this.record(EOutcome.REJECTED, scheduledNanos, System.nanoTime());
+    }
+
+    public void shed() {
+        shed.increment();
+    }
+
+    public void ended(String orderId, boolean success) {
+        var now = System.nanoTime();
+        var outcome = success ? EOutcome.SUCCESS : EOutcome.FAIL;
+        tracked.compute(orderId, (id, current) -> {
+            if (current == null) {
+                return new Tracked(0L, outcome, now);
+            }
+            if (current.outcome() == null) {
+                this.record(outcome, current.scheduledNanos(), now);
+                return null;
+            }
+            return current;
+        });
+    }
+
+    public long outstanding() {
+        return tracked.values().stream().filter(entry -> entry.outcome() == null).count();
+    }
+
+    /**
+     * Drops notify-ending events that never got a matching response, which are sagas started by someone else.
+     */
+    public void evictUnmatched(long olderThanNanos) {
+        var cutoff = System.nanoTime() - olderThanNanos;
+        tracked.values().removeIf(entry -> entry.outcome() != null && entry.endedNanos() < cutoff);
+    }
+
+    public synchronized void logInterval() {
+        var line = new StringBuilder();
+        for (var outcome : EOutcome.values()) {
+            var interval = recorders.get(outcome).getIntervalHistogram();
+            totals.get(outcome).add(interval);
+            interval.setTag(outcome.name());
+            if (logWriter != null && interval.getTotalCount() > 0) {
+                logWriter.outputIntervalHistogram(interval);
+            }
+            line.append(' ').append(outcome).append('=').append(interval.getTotalCount());
+            if (interval.getTotalCount() > 0) {
+                line.append(" (p99 ").append(millis(interval.getValueAtPercentile(99))).append(" ms)");
+            }
+        }
+        log.info("interval{} outstanding={} shed={}", line, this.outstanding(), shed.sum());
+    }
+
+    public synchronized void report(double measuredSeconds) throws FileNotFoundException {
+        this.logInterval();
+        for (var outcome : EOutcome.values()) {
+            var total = totals.get(outcome);
+            log.info("{}: {} orders ({} /s) p50={} p90={} p99={} p99.9={} max={} ms",
+                    outcome, total.getTotalCount(), format(total.getTotalCount() / measuredSeconds),
+                    millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue()));
+            if (total.getTotalCount() > 0) {
+                try (var out = new PrintStream(outputDir.resolve(outcome.name().toLowerCase() + ".hgrm").toFile())) {
+                    total.outputPercentileDistribution(out, MICROS_PER_MILLI);
+                }
+            }
+        }
+        log.info("{} orders never finished, {} were shed by max-outstanding; results written to {}",
+                this.outstanding(), shed.sum(), outputDir.toAbsolutePath());
+    }
+
+    private void record(EOutcome outcome, long scheduledNanos, long endedNanos) {
+        if (scheduledNanos < measureFromNanos) {
+            return;
+        }
+        var micros = TimeUnit.NANOSECONDS.toMicros(endedNanos - scheduledNanos);
+        recorders.get(outcome).recordValue(Math.min(Math.max(0, micros), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private static String millis(long micros) {
+        return format(micros / MICROS_PER_MILLI);
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private record Tracked(long scheduledNanos, EOutcome outcome, long endedNanos) {
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.microservices.orchestrated.loadgenerator.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load: order {@code n} is scheduled at {@code start + n / rate} whatever happened to the previous ones, so
+ * a slow system faces the same arrival rate a real one would. When the sender falls behind it catches up without
+ * skipping, and latencies are still measured from each order's scheduled time.
+ * <p>
+ * The only brake is {@code max-outstanding}: orders scheduled while that many are already waiting for a response are
+ * not sent and are reported as shed, instead of silently slowing the schedule down.
+ */
+@Slf4j
+@Component
+public class OrderLoadGenerator {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long ASSIGNMENT_TIMEOUT_SECONDS = 60;
+
+    private final ProductMix productMix;
+    private final LatencyTracker tracker;
+    private final CompletionListener completionListener;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient
+            .newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Value("${load-generator.order-url}")
+    private URI orderUrl;
+    @Value("${load-generator.rate-per-second}")
+    private double ratePerSecond;
+    @Value("${load-generator.warmup-seconds}")
+    private long warmupSeconds;
+    @Value("${load-generator.duration-seconds}")
+    private long durationSeconds;
+    @Value("${load-generator.drain-timeout-seconds}")
+    private long drainTimeoutSeconds;
+    @Value("${load-generator.max-outstanding}")
+    private int maxOutstanding;
+    @Value("${load-generator.request-timeout-ms}")
+    private long requestTimeoutMs;
+    @Value("${load-generator.report-interval-seconds}")
+    private long reportIntervalSeconds;
+
+    public OrderLoadGenerator(ProductMix productMix,
+                              LatencyTracker tracker,
+                              CompletionListener completionListener,
+                              ObjectMapper objectMapper) {
+        this.productMix = productMix;
+        this.tracker = tracker;
+        this.completionListener = completionListener;
+        this.objectMapper = objectMapper;
+    }
+
+    public void run() throws Exception {
+        if (!completionListener.awaitAssignment(ASSIGNMENT_TIMEOUT_SECONDS)) {
+            throw new IllegalStateException("The notify-ending consumer was not assigned any partition");
+        }
+        var outstanding = new Semaphore(maxOutstanding);
+        var intervalNanos = (long) (NANOS_PER_SECOND / ratePerSecond);
+        var reportNanos = TimeUnit.SECONDS.toNanos(reportIntervalSeconds);
+        var start = System.nanoTime();
+        var measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        var end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        var measuring = false;
+        var nextReport = measureFrom + reportNanos;
+        log.info("Sending {} orders/s to {} for {}s after a {}s warm-up", ratePerSecond, orderUrl, durationSeconds, warmupSeconds);
+
+        for (long index = 0; ; index++) {
+            var scheduled = start + index * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            if (!measuring && scheduled >= measureFrom) {
+                tracker.startMeasuring(measureFrom);
+                measuring = true;
+            }
+            if (measuring && scheduled >= nextReport) {
+                tracker.logInterval();
+                tracker.evictUnmatched(TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs));
+                nextReport += reportNanos;
+            }
+            parkUntil(scheduled);
+            if (outstanding.tryAcquire()) {
+                this.send(scheduled, outstanding);
+            } else if (scheduled >= measureFrom) {
+                tracker.shed();
+            }
+        }
+
+        var drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainTimeoutSeconds);
+        while ((outstanding.availablePermits() < maxOutstanding || tracker.outstanding() > 0)
+                && System.nanoTime() < drainUntil) {
+            parkUntil(Math.min(drainUntil, System.nanoTime() + reportNanos));
+            tracker.logInterval();
+        }
+        tracker.report((end - measureFrom) / (double) NANOS_PER_SECOND);
+    }
+
+    private void send(long scheduled, Semaphore outstanding) {
+        var request = HttpRequest
+                .newBuilder(orderUrl)
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(this.orderBody()))
+                .build();
+        httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    outstanding.release();
+                    var orderId = error == null ? this.acceptedOrderId(response) : null;
+                    if (orderId == null) {
+                        tracker.rejected(scheduled);
+                    } else {
+                        tracker.accepted(orderId, scheduled);
+                    }
+                });
+    }
+
+    private byte[] orderBody() {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("products", productMix.nextOrder()));
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not serialize synthetic order", ex);
+        }
+    }
+
+    private String acceptedOrderId(HttpResponse<byte[]> response) {
+        if (response.statusCode() / 100 != 2) {
+            return null;
+        }
+        try {
+            var id = objectMapper.readTree(response.body()).path("id");
+            return id.isTextual() ? id.asText() : null;
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        for (var remaining = deadlineNanos - System.nanoTime(); remaining > 0; remaining = deadlineNanos - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
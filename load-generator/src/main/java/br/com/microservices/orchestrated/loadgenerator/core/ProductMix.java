@@ -0,0 +1,72 @@
+package br.com.microservices.orchestrated.loadgenerator.core;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Weighted product catalogue read from {@code load-generator.mix.products}, given as comma-separated
+ * {@code CODE:unitValue:weight} entries. Each order gets between one and {@code max-lines} distinct products.
+ */
+@Component
+public class ProductMix {
+
+    private final List<Product> products = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private final Random random;
+    private final int maxLines;
+    private final int maxQuantity;
+
+    public ProductMix(@Value("${load-generator.mix.products}") List<String> entries,
+                      @Value("${load-generator.mix.max-lines}") int maxLines,
+                      @Value("${load-generator.mix.max-quantity}") int maxQuantity,
+                      @Value("${load-generator.seed}") long seed) {
+        this.cumulativeWeights = new double[entries.size()];
+        var total = 0.0;
+        for (var entry : entries) {
+            var fields = entry.trim().split(":");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Product mix entry must be CODE:unitValue:weight, got ".concat(entry));
+            }
+            total += Double.parseDouble(fields[2]);
+            cumulativeWeights[products.size()] = total;
+            products.add(new Product(fields[0], Double.parseDouble(fields[1])));
+        }
+        if (products.isEmpty() || total <= 0) {
+            throw new IllegalArgumentException("Product mix must contain at least one product with a positive weight");
+        }
+        this.maxLines = Math.min(Math.max(1, maxLines), products.size());
+        this.maxQuantity = Math.max(1, maxQuantity);
+        this.random = new Random(seed);
+    }
+
+    public List<OrderProducts> nextOrder() {
+        var lines = 1 + random.nextInt(maxLines);
+        var chosen = new ArrayList<Product>(lines);
+        while (chosen.size() < lines) {
+            var product = this.nextProduct();
+            if (!chosen.contains(product)) {
+                chosen.add(product);
+            }
+        }
+        return chosen
+                .stream()
+                .map(product -> new OrderProducts(product, 1 + random.nextInt(maxQuantity)))
+                .toList();
+    }
+
+    private Product nextProduct() {
+        var point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (var index = 0; index < cumulativeWeights.length; index++) {
+            if (point < cumulativeWeights[index]) {
+                return products.get(index);
+            }
+        }
+        return products.get(products.size() - 1);
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Saga throughput of the orchestrator with and without Kafka transactions. Each invocation pushes a batch of sagas
+ * through a real orchestrator on an embedded broker, with a stub that answers every step with SUCCESS, and waits for
+ * all of them to reach notify-ending.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SagaTransactionBenchmark.SAGAS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SagaTransactionBenchmark {
+
+    static final int SAGAS = 500;
+    private static final long BATCH_TIMEOUT_SECONDS = 120;
+    private static final Map<ETopics, EEventSource> PARTICIPANTS = Map.of(
+            ETopics.PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_SERVICE,
+            ETopics.PAYMENT_SUCCESS, PAYMENT_SERVICE,
+            ETopics.INVENTORY_SUCCESS, INVENTORY_SERVICE
+    );
+
+    @Param({"false", "true"})
+    private boolean transactions;
+
+    private final EventCodec eventCodec = new EventCodec(
+            new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build()), ECodecFormat.JSON);
+    private final Semaphore finished = new Semaphore(0);
+    private EmbeddedKafkaBroker broker;
+    private ConfigurableApplicationContext orchestrator;
+    private Producer<String, byte[]> producer;
+    private Thread participants;
+    private volatile boolean running;
+    private int batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaBroker(1, false, 3)
+                .brokerProperty("transaction.state.log.replication.factor", "1")
+                .brokerProperty("transaction.state.log.min.isr", "1");
+        broker.afterPropertiesSet();
+        orchestrator = new SpringApplicationBuilder(OrchestratorServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=earliest",
+                        "--spring.kafka.transaction.enabled=" + transactions,
+                        "--saga.state.dir=" + Files.createTempDirectory("saga-transaction-benchmark"),
+                        "--management.tracing.sampling.probability=0.0",
+                        "--logging.level.root=WARN"
+                );
+        producer = new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()).createProducer();
+        running = true;
+        participants = Thread.ofPlatform().name("participants").start(this::runParticipants);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        running = false;
+        participants.join();
+        producer.close();
+        orchestrator.close();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public void sagas() throws Exception {
+        var prefix = "batch-" + batch++ + "-order-";
+        for (var order = 0; order < SAGAS; order++) {
+            this.send(ETopics.START_SAGA, this.startEvent(prefix + order));
+        }
+        if (!finished.tryAcquire(SAGAS, BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new TimeoutException("Sagas of " + prefix + "* did not finish in " + BATCH_TIMEOUT_SECONDS + "s");
+        }
+    }
+
+    private void runParticipants() {
+        var properties = KafkaTestUtils.consumerProps("participants", "true", broker);
+        properties.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        try (var consumer = new DefaultKafkaConsumerFactory<>(properties,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            var topics = new ArrayList<>(PARTICIPANTS.keySet().stream().map(ETopics::getTopic).toList());
+            topics.add(ETopics.NOTIFY_ENDING.getTopic());
+            consumer.subscribe(topics);
+            while (running) {
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    var topic = ETopics.valueOf(record.topic().toUpperCase().replace('-', '_'));
+                    if (ETopics.NOTIFY_ENDING.equals(topic)) {
+                        finished.release();
+                        continue;
+                    }
+                    var event = eventCodec.decode(record.value());
+                    event.setSource(PARTICIPANTS.get(topic));
+                    event.setStatus(SUCCESS);
+                    this.send(ETopics.BASE_ORCHESTRATOR, event);
+                }
+            }
+        }
+    }
+
+    private void send(ETopics topic, Event event) {
+        producer.send(new ProducerRecord<>(topic.getTopic(), event.getOrderId(), eventCodec.encode(event)));
+    }
+
+    private Event startEvent(String orderId) {
+        var transactionId = "tx-" + orderId;
+        return Event
+                .builder()
+                .id(orderId)
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order.builder().id(orderId).transactionId(transactionId).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
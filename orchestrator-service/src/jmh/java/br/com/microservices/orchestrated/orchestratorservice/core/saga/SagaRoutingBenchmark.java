@@ -0,0 +1,56 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SagaRoutingBenchmark {
+
+    private static final Object[][] LEGACY_SAGA_HANDLER = {
+            { ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS },
+            { ORCHESTRATOR, FAIL, FINISH_FAIL },
+            { PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL },
+            { PRODUCT_VALIDATION_SERVICE, FAIL, FINISH_FAIL },
+            { PRODUCT_VALIDATION_SERVICE, SUCCESS, PAYMENT_SUCCESS },
+            { PAYMENT_SERVICE, ROLLBACK_PENDING, PAYMENT_FAIL },
+            { PAYMENT_SERVICE, FAIL, PRODUCT_VALIDATION_FAIL },
+            { PAYMENT_SERVICE, SUCCESS, INVENTORY_SUCCESS },
+            { INVENTORY_SERVICE, ROLLBACK_PENDING, INVENTORY_FAIL },
+            { INVENTORY_SERVICE, FAIL, PAYMENT_FAIL },
+            { INVENTORY_SERVICE, SUCCESS, FINISH_SUCCESS },
+    };
+
+    private final SagaTransitionTable table = SagaHandler.ORDER_SAGA.compile();
+
+    @Param({"ORCHESTRATOR", "PAYMENT_SERVICE", "INVENTORY_SERVICE"})
+    private EEventSource source;
+
+    @Param({"SUCCESS", "FAIL"})
+    private ESagaStatus status;
+
+    @Benchmark
+    public ETopics legacyScan() {
+        return (ETopics) Arrays.stream(LEGACY_SAGA_HANDLER)
+                .filter(row -> source.equals(row[0]) && status.equals(row[1]))
+                .map(row -> row[2])
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public List<ETopics> compiledTable() {
+        return table.route(source, status);
+    }
+}
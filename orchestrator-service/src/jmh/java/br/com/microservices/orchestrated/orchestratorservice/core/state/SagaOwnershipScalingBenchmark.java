@@ -0,0 +1,200 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+
+/**
+ * Saga throughput of 1 to N orchestrator instances in ownership mode sharing one embedded broker in this JVM. Every
+ * instance runs a single consumer, so each one added takes over part of the partitions and the sagas keyed to them.
+ * Each invocation pushes a batch of sagas, with a stub that answers every step with SUCCESS, and waits for all of them
+ * to reach notify-ending. The scaling factor is the score of N instances over the score of one; the broker and the stub
+ * share the JVM with the instances, so it is bounded by the cores available to all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(SagaOwnershipScalingBenchmark.SAGAS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SagaOwnershipScalingBenchmark {
+
+    static final int SAGAS = 500;
+    private static final int PARTITIONS = 6;
+    private static final long BATCH_TIMEOUT_SECONDS = 120;
+    private static final long ASSIGNMENT_TIMEOUT_MS = 60000;
+    private static final Map<ETopics, EEventSource> PARTICIPANTS = Map.of(
+            ETopics.PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_SERVICE,
+            ETopics.PAYMENT_SUCCESS, PAYMENT_SERVICE,
+            ETopics.INVENTORY_SUCCESS, INVENTORY_SERVICE
+    );
+
+    @Param({"1", "2", "3"})
+    private int instances;
+
+    private final EventCodec eventCodec = new EventCodec(
+            new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build()), ECodecFormat.JSON);
+    private final Semaphore finished = new Semaphore(0);
+    private final List<ConfigurableApplicationContext> orchestrators = new ArrayList<>();
+    private EmbeddedKafkaBroker broker;
+    private Producer<String, byte[]> producer;
+    private Thread participants;
+    private volatile boolean running;
+    private int batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        broker = new EmbeddedKafkaBroker(1, false, PARTITIONS);
+        broker.afterPropertiesSet();
+        var stateDir = Files.createTempDirectory("saga-ownership-scaling-benchmark");
+        for (var instance = 0; instance < instances; instance++) {
+            orchestrators.add(new SpringApplicationBuilder(OrchestratorServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run(
+                            "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                            "--spring.kafka.consumer.auto-offset-reset=earliest",
+                            "--spring.kafka.topic.partitions=" + PARTITIONS,
+                            "--spring.kafka.listener.concurrency=1",
+                            "--saga.ownership.enabled=true",
+                            "--saga.state.dir=" + stateDir.resolve("instance-" + instance),
+                            "--management.tracing.sampling.probability=0.0",
+                            "--logging.level.root=WARN"
+                    ));
+        }
+        this.awaitAssignment();
+        producer = new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()).createProducer();
+        running = true;
+        participants = Thread.ofPlatform().name("participants").start(this::runParticipants);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        running = false;
+        participants.join();
+        producer.close();
+        orchestrators.forEach(ConfigurableApplicationContext::close);
+        orchestrators.clear();
+        broker.destroy();
+    }
+
+    @Benchmark
+    public void sagas() throws Exception {
+        var prefix = "batch-" + batch++ + "-order-";
+        for (var order = 0; order < SAGAS; order++) {
+            this.send(ETopics.START_SAGA, this.startEvent(prefix + order));
+        }
+        if (!finished.tryAcquire(SAGAS, BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new TimeoutException("Sagas of " + prefix + "* did not finish in " + BATCH_TIMEOUT_SECONDS + "s");
+        }
+    }
+
+    /**
+     * Measuring before the group has settled would time the rebalances instead of the instances, so the trial waits
+     * until every instance owns part of the start-saga partitions and together they own all of them.
+     */
+    private void awaitAssignment() throws Exception {
+        var deadline = System.currentTimeMillis() + ASSIGNMENT_TIMEOUT_MS;
+        while (true) {
+            var owned = orchestrators.stream().mapToInt(this::ownedStartSagaPartitions).toArray();
+            if (Arrays.stream(owned).allMatch(count -> count > 0) && Arrays.stream(owned).sum() == PARTITIONS) {
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Partitions not assigned to all " + instances + " instances in "
+                        + ASSIGNMENT_TIMEOUT_MS + " ms");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private int ownedStartSagaPartitions(ConfigurableApplicationContext orchestrator) {
+        return (int) orchestrator.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers().stream()
+                .map(container -> container.getAssignedPartitions())
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .filter(partition -> ETopics.START_SAGA.getTopic().equals(partition.topic()))
+                .count();
+    }
+
+    private void runParticipants() {
+        var properties = KafkaTestUtils.consumerProps("participants", "true", broker);
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        try (var consumer = new DefaultKafkaConsumerFactory<>(properties,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            var topics = new ArrayList<>(PARTICIPANTS.keySet().stream().map(ETopics::getTopic).toList());
+            topics.add(ETopics.NOTIFY_ENDING.getTopic());
+            consumer.subscribe(topics);
+            while (running) {
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    var topic = ETopics.valueOf(record.topic().toUpperCase().replace('-', '_'));
+                    if (ETopics.NOTIFY_ENDING.equals(topic)) {
+                        finished.release();
+                        continue;
+                    }
+                    var event = eventCodec.decode(record.value());
+                    event.setSource(PARTICIPANTS.get(topic));
+                    event.setStatus(SUCCESS);
+                    this.send(ETopics.BASE_ORCHESTRATOR, event);
+                }
+            }
+        }
+    }
+
+    private void send(ETopics topic, Event event) {
+        producer.send(new ProducerRecord<>(topic.getTopic(), event.getOrderId(), eventCodec.encode(event)));
+    }
+
+    private Event startEvent(String orderId) {
+        var transactionId = "tx-" + orderId;
+        return Event
+                .builder()
+                .id(orderId)
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order.builder().id(orderId).transactionId(transactionId).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Product;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    @Param({"1", "8"})
+    private int historySize;
+
+    private JsonUtil jsonUtil;
+    private EventCodec jsonCodec;
+    private Event event;
+    private String json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        var mapper = JsonMapper
+                .builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        jsonUtil = new JsonUtil(mapper);
+        jsonCodec = new EventCodec(jsonUtil, ECodecFormat.JSON);
+        event = sampleEvent(historySize);
+        json = jsonUtil.toJson(event);
+        binary = EventCodec.toBinary(event);
+        System.out.printf("%nhistory=%d json=%d bytes binary=%d bytes%n", historySize, json.getBytes().length, binary.length);
+    }
+
+    @Benchmark
+    public String jsonUtilEncode() {
+        return jsonUtil.toJson(event);
+    }
+
+    @Benchmark
+    public Event jsonUtilDecode() {
+        return jsonUtil.toEvent(json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return EventCodec.toBinary(event);
+    }
+
+    @Benchmark
+    public Event binaryDecode() {
+        return EventCodec.fromBinary(binary);
+    }
+
+    @Benchmark
+    public Event detectAndDecodeJson() {
+        return jsonCodec.decode(json.getBytes());
+    }
+
+    private static Event sampleEvent(int historySize) {
+        var now = LocalDateTime.now();
+        var order = Order
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(now + "_" + UUID.randomUUID())
+                .createdAt(now)
+                .products(List.of(
+                        new OrderProducts(new Product("COMIC_BOOKS", 15.50), 3),
+                        new OrderProducts(new Product("BOOKS", 9.90), 1),
+                        new OrderProducts(new Product("MOVIES", 5.25), 2)
+                ))
+                .totalAmount(66.90)
+                .totalItems(6)
+                .build();
+        var event = Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(order.getTransactionId())
+                .orderId(order.getId())
+                .payload(order)
+                .source(EEventSource.PAYMENT_SERVICE)
+                .status(ESagaStatus.SUCCESS)
+                .createdAt(now)
+                .build();
+        var sources = EEventSource.values();
+        for (var index = 0; index < historySize; index++) {
+            event.addToHistory(History
+                    .builder()
+                    .source(sources[index % sources.length])
+                    .status(ESagaStatus.SUCCESS)
+                    .message("Step executed successfully")
+                    .createdAt(now)
+                    .build());
+        }
+        return event;
+    }
+}
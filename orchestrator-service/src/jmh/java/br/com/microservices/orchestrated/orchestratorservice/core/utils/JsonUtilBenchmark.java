@@ -0,0 +1,128 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.utils;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.OrderProducts;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Product;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JSON serialization every hop pays, as orders and histories grow. {@code JSON_UTIL} is the path the
+ * services use today; {@code READER_WRITER} reuses a pre-resolved {@link ObjectReader}/{@link ObjectWriter} pair and
+ * {@code BLACKBIRD} adds the Blackbird module on top of it. Run with {@code -prof gc} (the default in this build) to
+ * compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonUtilBenchmark {
+
+    private static final String[] PRODUCT_CODES = {"COMIC_BOOKS", "BOOKS", "MOVIES", "MUSIC"};
+
+    public enum Mapping { JSON_UTIL, READER_WRITER, BLACKBIRD }
+
+    @Param({"1", "20", "200"})
+    private int products;
+
+    @Param({"1", "5", "20"})
+    private int historySize;
+
+    @Param({"JSON_UTIL", "READER_WRITER", "BLACKBIRD"})
+    private Mapping mapping;
+
+    private JsonUtil jsonUtil;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Event event;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        var builder = JsonMapper
+                .builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (mapping == Mapping.BLACKBIRD) {
+            builder.addModule(new BlackbirdModule());
+        }
+        var mapper = builder.build();
+        jsonUtil = new JsonUtil(mapper);
+        writer = mapper.writerFor(Event.class);
+        reader = mapper.readerFor(Event.class);
+        event = sampleEvent(products, historySize);
+        json = this.serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapping == Mapping.JSON_UTIL ? jsonUtil.toJsonBytes(event) : writer.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public Event deserialize() throws IOException {
+        return this.read(json);
+    }
+
+    @Benchmark
+    public Event roundTrip() throws IOException {
+        return this.read(this.serialize());
+    }
+
+    private Event read(byte[] bytes) throws IOException {
+        return mapping == Mapping.JSON_UTIL ? jsonUtil.toEvent(bytes) : reader.readValue(bytes);
+    }
+
+    private static Event sampleEvent(int products, int historySize) {
+        var now = LocalDateTime.now();
+        var lines = new ArrayList<OrderProducts>(products);
+        for (var index = 0; index < products; index++) {
+            var code = PRODUCT_CODES[index % PRODUCT_CODES.length] + "_" + index;
+            lines.add(new OrderProducts(new Product(code, 5.25 + index), 1 + index % 3));
+        }
+        var order = Order
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(now + "_" + UUID.randomUUID())
+                .createdAt(now)
+                .products(lines)
+                .totalAmount(lines.stream().mapToDouble(line -> line.getProduct().getUnitValues() * line.getQuantity()).sum())
+                .totalItems(lines.stream().mapToInt(OrderProducts::getQuantity).sum())
+                .build();
+        var event = Event
+                .builder()
+                .id(UUID.randomUUID().toString())
+                .transactionId(order.getTransactionId())
+                .orderId(order.getId())
+                .payload(order)
+                .source(EEventSource.INVENTORY_SERVICE)
+                .status(ESagaStatus.SUCCESS)
+                .createdAt(now)
+                .build();
+        var sources = EEventSource.values();
+        for (var index = 0; index < historySize; index++) {
+            event.addToHistory(History
+                    .builder()
+                    .source(sources[index % sources.length])
+                    .status(ESagaStatus.SUCCESS)
+                    .message("Step executed successfully")
+                    .createdAt(now)
+                    .build());
+        }
+        return event;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.OWNED_LISTENER_ID;
+
+/**
+ * Pauses the start-saga listener on behalf of several independent reasons and only resumes it once none of them holds
+ * it closed anymore, so compensation priority and admission control do not resume each other's pauses.
+ * <p>
+ * In ownership mode start-saga shares its container with the replies, so only the start-saga partitions are paused.
+ * The request is made for every partition on every consumer, and the container applies it to whichever of them it is
+ * assigned, including after a rebalance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ForwardListenerGate {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final Set<String> reasons = new HashSet<>();
+
+    @Value("${spring.kafka.topic.start-saga}")
+    private String startSagaTopic;
+    @Value("${spring.kafka.topic.partitions}")
+    private int partitionCount;
+
+    public synchronized void close(String reason) {
+        if (reasons.add(reason)) {
+            log.info("Pausing forward listener: {}", reason);
+            this.apply();
+        }
+    }
+
+    public synchronized void open(String reason) {
+        if (reasons.remove(reason)) {
+            log.info("Forward listener released by {}", reason);
+            this.apply();
+        }
+    }
+
+    public synchronized boolean isClosed(String reason) {
+        return reasons.contains(reason);
+    }
+
+    private void apply() {
+        var forward = registry.getListenerContainer(FORWARD_LISTENER_ID);
+        if (forward != null) {
+            if (reasons.isEmpty() && forward.isPauseRequested()) {
+                forward.resume();
+            } else if (!reasons.isEmpty() && !forward.isPauseRequested()) {
+                forward.pause();
+            }
+        }
+        if (registry.getListenerContainer(OWNED_LISTENER_ID) instanceof ConcurrentMessageListenerContainer<?, ?> owned) {
+            var partitions = IntStream.range(0, partitionCount)
+                    .mapToObj(partition -> new TopicPartition(startSagaTopic, partition))
+                    .toList();
+            for (var consumer : owned.getContainers()) {
+                if (reasons.isEmpty()) {
+                    partitions.forEach(consumer::resumePartition);
+                } else {
+                    partitions.forEach(consumer::pausePartition);
+                }
+            }
+        }
+    }
+}
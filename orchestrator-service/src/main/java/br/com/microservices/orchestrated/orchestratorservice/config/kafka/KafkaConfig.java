@@ -1,22 +1,46 @@
 package br.com.microservices.orchestrated.orchestratorservice.config.kafka;
 
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerBackPressureException;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.orchestratorservice.config.tracing.OrderIdListenerObservationConvention;
+import br.com.microservices.orchestrated.orchestratorservice.config.tracing.OrderIdTemplateObservationConvention;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaTransport;
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.FailedRecordProcessor;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
+import static br.com.microservices.orchestrated.orchestratorservice.config.threads.VirtualThreadConfig.COMPENSATION_LISTENER_TASK_EXECUTOR;
+import static br.com.microservices.orchestrated.orchestratorservice.config.threads.VirtualThreadConfig.LISTENER_TASK_EXECUTOR;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
 
 @EnableKafka
@@ -24,7 +48,10 @@ import static br.com.microservices.orchestrated.orchestratorservice.core.enums.E
 @RequiredArgsConstructor
 public class KafkaConfig {
 
-    private static final Integer PARTITION_COUNT = 1;
+    public static final String FORWARD_LISTENER_ID = "forward-listener";
+    public static final String COMPENSATION_LISTENER_ID = "compensation-listener";
+    public static final String OWNED_LISTENER_ID = "owned-listener";
+
     private static final Integer REPLICA_COUNT = 1;
 
     @Value("${spring.kafka.bootstrap-servers}")
@@ -33,10 +60,32 @@ public class KafkaConfig {
     private String groupId;
     @Value("${spring.kafka.consumer.auto-offset-reset}")
     private String autoOffSetReset;
+    @Value("${spring.kafka.topic.partitions}")
+    private Integer partitionCount;
+    @Value("${spring.kafka.consumer.max-poll-records}")
+    private Integer maxPollRecords;
+    @Value("${spring.kafka.consumer.isolation-level}")
+    private String isolationLevel;
+    @Value("${spring.kafka.listener.concurrency}")
+    private Integer concurrency;
+    @Value("${spring.kafka.listener.retry.backoff-ms}")
+    private long retryBackoffMs;
+    @Value("${spring.kafka.listener.retry.max-backoff-ms}")
+    private long retryMaxBackoffMs;
+    @Value("${spring.kafka.transaction.enabled}")
+    private boolean transactionEnabled;
+    @Value("${spring.kafka.transaction.id-prefix}")
+    private String transactionIdPrefix;
+    @Value("${saga.transport}")
+    private ESagaTransport transport;
+    @Value("${saga.admission.enabled}")
+    private boolean admissionEnabled;
+    @Value("${saga.admission.max-poll-records}")
+    private Integer admissionMaxPollRecords;
 
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         return new DefaultKafkaConsumerFactory<>(consumerProps());
     }
 
@@ -45,34 +94,144 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffSetReset);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
         return props;
     }
 
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
-        return new DefaultKafkaProducerFactory<>(producerProps());
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            ProducerFactory<String, byte[]> producerFactory,
+            @Qualifier(LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> listenerTaskExecutor,
+            ObjectProvider<ConsumerAwareRebalanceListener> rebalanceListener,
+            MeterRegistry meterRegistry) {
+        var factory = this.buildContainerFactory(consumerFactory, producerFactory, listenerTaskExecutor);
+        rebalanceListener.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
+        factory.setRecordInterceptor(new ConsumeTimingInterceptor(meterRegistry, ConsumeTimingInterceptor.FORWARD_LANE));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> compensationKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            ProducerFactory<String, byte[]> producerFactory,
+            @Qualifier(LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> listenerTaskExecutor,
+            @Qualifier(COMPENSATION_LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> compensationTaskExecutor,
+            MeterRegistry meterRegistry) {
+        var factory = this.buildContainerFactory(consumerFactory, producerFactory, listenerTaskExecutor);
+        factory.getContainerProperties().setListenerTaskExecutor(compensationTaskExecutor
+                .getIfAvailable(() -> new SimpleAsyncTaskExecutor(COMPENSATION_LISTENER_ID + "-")));
+        factory.setRecordInterceptor(new ConsumeTimingInterceptor(meterRegistry, ConsumeTimingInterceptor.COMPENSATION_LANE));
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            ProducerFactory<String, byte[]> producerFactory,
+            @Qualifier(LISTENER_TASK_EXECUTOR) ObjectProvider<AsyncTaskExecutor> listenerTaskExecutor) {
+        var factory = this.buildContainerFactory(consumerFactory, producerFactory, listenerTaskExecutor);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    private ConcurrentKafkaListenerContainerFactory<String, byte[]> buildContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory,
+            ProducerFactory<String, byte[]> producerFactory,
+            ObjectProvider<AsyncTaskExecutor> listenerTaskExecutor) {
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(concurrency);
+        factory.setAutoStartup(ESagaTransport.KAFKA.equals(transport));
+        listenerTaskExecutor.ifAvailable(factory.getContainerProperties()::setListenerTaskExecutor);
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setObservationConvention(new OrderIdListenerObservationConvention());
+        factory.setCommonErrorHandler(this.withProducerBackOff(new DefaultErrorHandler()));
+        factory.setContainerCustomizer(this::capStartSagaPoll);
+        if (transactionEnabled) {
+            factory.getContainerProperties().setTransactionManager(new KafkaTransactionManager<>(producerFactory));
+            factory.setAfterRollbackProcessor(this.withProducerBackOff(new DefaultAfterRollbackProcessor<>()));
+        }
+        return factory;
+    }
+
+    /**
+     * The admission gate only pauses the start-saga listener for the next poll, so the records already fetched are
+     * still started and the limit can be overshot by up to {@code max.poll.records} per consumer. With admission
+     * enabled the containers that consume start-saga poll at most {@code saga.admission.max-poll-records}, which keeps
+     * that overshoot small. In ownership mode this also applies to the replies sharing the container.
+     */
+    private void capStartSagaPoll(ConcurrentMessageListenerContainer<String, byte[]> container) {
+        var listenerId = container.getListenerId();
+        if (admissionEnabled && (FORWARD_LISTENER_ID.equals(listenerId) || OWNED_LISTENER_ID.equals(listenerId))) {
+            container.getContainerProperties().getKafkaConsumerProperties()
+                    .put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(Math.min(maxPollRecords, admissionMaxPollRecords)));
+        }
+    }
+
+    /**
+     * A record that failed because its events could not be sent is retried with an exponential back-off until they go
+     * through, instead of being skipped after the default ten attempts. Other failures keep the default handling.
+     */
+    private <T extends FailedRecordProcessor> T withProducerBackOff(T processor) {
+        processor.setBackOffFunction((record, exception) -> isProducerFailure(exception) ? this.producerBackOff() : null);
+        return processor;
+    }
+
+    private BackOff producerBackOff() {
+        var backOff = new ExponentialBackOff(retryBackoffMs, ExponentialBackOff.DEFAULT_MULTIPLIER);
+        backOff.setMaxInterval(retryMaxBackoffMs);
+        return backOff;
+    }
+
+    private static boolean isProducerFailure(Throwable exception) {
+        for (var cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProducerBackPressureException || cause instanceof ProducerSendException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Bean
+    public ProducerFactory<String, byte[]> producerFactory() {
+        var factory = new DefaultKafkaProducerFactory<String, byte[]>(producerProps());
+        if (transactionEnabled) {
+            factory.setTransactionIdPrefix(transactionIdPrefix);
+        }
+        return factory;
     }
 
     private Map<String, Object> producerProps (){
         var props = new HashMap<String, Object>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        if (transactionEnabled) {
+            props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+            props.put(ProducerConfig.ACKS_CONFIG, "all");
+        }
         return props;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
-        return new KafkaTemplate<>(producerFactory);
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        var template = new KafkaTemplate<>(producerFactory);
+        template.setAllowNonTransactional(true);
+        template.setObservationEnabled(true);
+        template.setObservationConvention(new OrderIdTemplateObservationConvention());
+        return template;
     }
 
     private NewTopic buildTopic(String name) {
         return TopicBuilder
                 .name(name)
                 .replicas(REPLICA_COUNT)
-                .partitions(PARTITION_COUNT)
+                .partitions(partitionCount)
                 .build();
     }
 
@@ -82,6 +241,9 @@ public class KafkaConfig {
     @Bean
     public NewTopic orchestratorTopic() { return this.buildTopic(BASE_ORCHESTRATOR.getTopic()); }
 
+    @Bean
+    public NewTopic orchestratorCompensationTopic() { return this.buildTopic(ORCHESTRATOR_COMPENSATION.getTopic()); }
+
     @Bean
     public NewTopic finishSuccessTopic() { return this.buildTopic(FINISH_SUCCESS.getTopic()); }
 
@@ -97,6 +259,19 @@ public class KafkaConfig {
     @Bean
     public NewTopic notifyEndingTopic() { return this.buildTopic(NOTIFY_ENDING.getTopic()); }
 
+    @Bean
+    public NewTopic sagaHistoryTopic() { return this.buildTopic(SAGA_HISTORY.getTopic()); }
+
+    @Bean
+    public NewTopic sagaStateChangelogTopic() {
+        return TopicBuilder
+                .name(SAGA_STATE_CHANGELOG.getTopic())
+                .replicas(REPLICA_COUNT)
+                .partitions(partitionCount)
+                .compact()
+                .build();
+    }
+
     @Bean
     public NewTopic paymentSuccessTopic() {
         return this.buildTopic(PAYMENT_SUCCESS.getTopic());
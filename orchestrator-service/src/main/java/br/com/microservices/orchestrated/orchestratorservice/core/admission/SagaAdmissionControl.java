@@ -0,0 +1,145 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.admission;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.kafka.ForwardListenerGate;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Caps the sagas in flight. When the state store holds {@code limit} sagas the start-saga listener is held closed
+ * through the {@link ForwardListenerGate}, and it is released once finished sagas bring the count under
+ * {@code limit * resume-ratio}. In adaptive mode the limit follows AIMD on the completion latency: it grows by one every
+ * {@code limit} completions under the target and is multiplied by {@code backoff-ratio}, at most once per target
+ * latency, when completions are slower.
+ * <p>
+ * Closing the gate takes effect on the next poll, so the records of the current one are still admitted: in-flight
+ * sagas can exceed {@code limit} by up to {@code saga.admission.max-poll-records} times the start-saga concurrency,
+ * which is why the start-saga poll is capped while admission is enabled.
+ */
+@Slf4j
+@Component
+public class SagaAdmissionControl {
+
+    private static final String REASON = "admission limit";
+
+    private final SagaStateStore stateStore;
+    private final ForwardListenerGate forwardGate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean adaptive;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double resumeRatio;
+    private final long targetLatencyMs;
+    private final double backoffRatio;
+    private final Timer admissionWait;
+    private final Timer paused;
+
+    private double limit;
+    private long lastDecreaseAt;
+    private long closedAt;
+
+    public SagaAdmissionControl(SagaStateStore stateStore,
+                                ForwardListenerGate forwardGate,
+                                MeterRegistry meterRegistry,
+                                @Value("${saga.admission.enabled}") boolean enabled,
+                                @Value("${saga.admission.adaptive}") boolean adaptive,
+                                @Value("${saga.admission.limit.initial}") int initialLimit,
+                                @Value("${saga.admission.limit.min}") int minLimit,
+                                @Value("${saga.admission.limit.max}") int maxLimit,
+                                @Value("${saga.admission.resume-ratio}") double resumeRatio,
+                                @Value("${saga.admission.aimd.target-latency-ms}") long targetLatencyMs,
+                                @Value("${saga.admission.aimd.backoff-ratio}") double backoffRatio) {
+        this.stateStore = stateStore;
+        this.forwardGate = forwardGate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.resumeRatio = resumeRatio;
+        this.targetLatencyMs = targetLatencyMs;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(maxLimit, Math.max(minLimit, initialLimit));
+        this.admissionWait = Timer
+                .builder("saga.admission.wait")
+                .description("Time from order creation until its saga was admitted")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.paused = Timer
+                .builder("saga.admission.paused")
+                .description("Time the start-saga listener was held closed by the admission limit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("saga.admission.limit", this, SagaAdmissionControl::limit).register(meterRegistry);
+        Gauge.builder("saga.admission.in_flight", stateStore, SagaStateStore::size).register(meterRegistry);
+    }
+
+    public void sagaStarted(Event event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getCreatedAt() != null) {
+            var wait = Duration.between(event.getCreatedAt(), LocalDateTime.now());
+            admissionWait.record(wait.isNegative() ? Duration.ZERO : wait);
+        }
+        this.evaluate();
+    }
+
+    public void sagaFinished(Long startedAt) {
+        if (!enabled) {
+            return;
+        }
+        if (adaptive && startedAt != null) {
+            this.adjust(System.currentTimeMillis() - startedAt);
+        }
+        this.evaluate();
+    }
+
+    @Scheduled(fixedDelayString = "${saga.admission.check-ms}")
+    public synchronized void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        var inFlight = stateStore.size();
+        var closed = forwardGate.isClosed(REASON);
+        if (!closed && inFlight >= limit) {
+            log.info("Admission limit reached with {} sagas in flight (limit {})", inFlight, (int) limit);
+            closedAt = System.currentTimeMillis();
+            forwardGate.close(REASON);
+        } else if (closed && inFlight < limit * resumeRatio) {
+            forwardGate.open(REASON);
+            paused.record(Duration.ofMillis(System.currentTimeMillis() - closedAt));
+        }
+    }
+
+    public synchronized double limit() {
+        return limit;
+    }
+
+    private synchronized void adjust(long latencyMs) {
+        if (latencyMs <= targetLatencyMs) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+            return;
+        }
+        var now = System.currentTimeMillis();
+        if (now - lastDecreaseAt >= targetLatencyMs) {
+            lastDecreaseAt = now;
+            limit = Math.max(minLimit, limit * backoffRatio);
+            log.info("Saga completion took {} ms, admission limit lowered to {}", latencyMs, (int) limit);
+        }
+    }
+}
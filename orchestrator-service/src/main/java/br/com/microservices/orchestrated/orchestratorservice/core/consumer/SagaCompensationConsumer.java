@@ -0,0 +1,34 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.COMPENSATION_LISTENER_ID;
+
+/**
+ * Consumes the failure and rollback replies of the participants on their own container and executor, so compensation
+ * is not queued behind forward traffic.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(value = "saga.ownership.enabled", havingValue = "false", matchIfMissing = true)
+public class SagaCompensationConsumer {
+    private final OrchestratorService orchestratorService;
+
+    @KafkaListener(
+            id = COMPENSATION_LISTENER_ID,
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator-compensation}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.orchestrator-compensation:${spring.kafka.listener.concurrency}}",
+            containerFactory = "compensationKafkaListenerContainerFactory"
+    )
+    public void consumerCompensationEvent(byte[] payload) {
+        log.info("Receiving event of {} bytes from orchestrator-compensation topic", payload.length);
+        orchestratorService.continueSaga(payload);
+    }
+}
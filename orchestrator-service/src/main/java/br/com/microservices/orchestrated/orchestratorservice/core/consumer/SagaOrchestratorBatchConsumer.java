@@ -0,0 +1,123 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerBackPressureException;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
+/**
+ * Batch counterpart of {@link SagaOrchestratorConsumer}. Each poll is routed record by record and a failing record is
+ * logged and skipped. The outgoing events of the whole batch are sent without waiting and awaited before the listener
+ * returns, so the batch offsets are only committed once every one of them was acknowledged. A send that failed for
+ * good, or producer back-pressure, fails the batch at that record: the records before it are committed and the rest
+ * are redelivered.
+ */
+@Slf4j
+@Component
+@AllArgsConstructor
+@ConditionalOnExpression("${spring.kafka.listener.batch:false} and !${saga.ownership.enabled:false}")
+public class SagaOrchestratorBatchConsumer {
+    private final EventCodec eventCodec;
+    private final OrchestratorService orchestratorService;
+    private final SagaOrchestratorProducer producer;
+
+    @KafkaListener(
+            id = FORWARD_LISTENER_ID,
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.start-saga}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.start-saga:${spring.kafka.listener.concurrency}}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerStartSagaEvents(List<byte[]> payloads) {
+        this.consume(payloads, "start-saga", this.decoded(orchestratorService::startSaga));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.orchestrator}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.orchestrator:${spring.kafka.listener.concurrency}}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerOrchestratorEvents(List<byte[]> payloads) {
+        this.consume(payloads, "orchestrator", orchestratorService::continueSaga);
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-success}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.finish-success:${spring.kafka.listener.concurrency}}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerFinishSuccessEvents(List<byte[]> payloads) {
+        this.consume(payloads, "finish-success", this.decoded(orchestratorService::finishSagaSuccess));
+    }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.finish-fail}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.finish-fail:${spring.kafka.listener.concurrency}}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void consumerFinishFailEvents(List<byte[]> payloads) {
+        this.consume(payloads, "finish-fail", this.decoded(orchestratorService::finishSagaFail));
+    }
+
+    private Consumer<byte[]> decoded(Consumer<Event> handler) {
+        return payload -> {
+            var event = eventCodec.decode(payload);
+            if (event == null) {
+                throw new ValidationException("Payload is not a valid event");
+            }
+            handler.accept(event);
+        };
+    }
+
+    private void consume(List<byte[]> payloads, String topic, Consumer<byte[]> handler) {
+        log.info("Receiving batch of {} events from {} topic", payloads.size(), topic);
+        var sends = new ArrayList<CompletableFuture<Void>>(payloads.size());
+        var failed = 0;
+        for (var index = 0; index < payloads.size(); index++) {
+            var payload = payloads.get(index);
+            try {
+                sends.add(producer.collectSends(() -> handler.accept(payload)));
+            } catch (ProducerBackPressureException e) {
+                this.awaitSends(sends, topic);
+                throw new BatchListenerFailedException("Producer back-pressure on ".concat(topic), e, index);
+            } catch (Exception e) {
+                sends.add(CompletableFuture.completedFuture(null));
+                failed++;
+                log.error("Error: skipping record {} of batch from {} topic", index, topic, e);
+            }
+        }
+        this.awaitSends(sends, topic);
+        if (failed > 0) {
+            log.warn("Batch from {} topic finished with {} of {} events skipped", topic, failed, payloads.size());
+        }
+    }
+
+    private void awaitSends(List<CompletableFuture<Void>> sends, String topic) {
+        for (var index = 0; index < sends.size(); index++) {
+            try {
+                producer.await(sends.get(index));
+            } catch (ProducerSendException e) {
+                throw new BatchListenerFailedException("Producer send failed on ".concat(topic), e, index);
+            }
+        }
+    }
+}
@@ -1,56 +1,64 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
 
 import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
-import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
 @Slf4j
 @Component
 @AllArgsConstructor
+@ConditionalOnExpression("!${spring.kafka.listener.batch:false} and !${saga.ownership.enabled:false}")
 public class SagaOrchestratorConsumer {
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final OrchestratorService orchestratorService;
 
     @KafkaListener(
+            id = FORWARD_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.start-saga}"
+            topics = "${spring.kafka.topic.start-saga}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.start-saga:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerStartSagaEvent(String payload) {
-        log.info("Receiving event {} from start-saga topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerStartSagaEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from start-saga topic", event);
         orchestratorService.startSaga(event);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.orchestrator}"
+            topics = "${spring.kafka.topic.orchestrator}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.orchestrator:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerOrchestratorEvent(String payload) {
-        log.info("Receiving event {} from orchestrator topic", payload);
-        var event = jsonUtil.toEvent(payload);
-        orchestratorService.continueSaga(event);
+    public void consumerOrchestratorEvent(byte[] payload) {
+        log.info("Receiving event of {} bytes from orchestrator topic", payload.length);
+        orchestratorService.continueSaga(payload);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.finish-success}"
+            topics = "${spring.kafka.topic.finish-success}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.finish-success:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerFinishSuccessEvent(String payload) {
-        log.info("Receiving event {} from finish-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerFinishSuccessEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from finish-success topic", event);
         orchestratorService.finishSagaSuccess(event);
     }
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.finish-fail}"
+            topics = "${spring.kafka.topic.finish-fail}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.finish-fail:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerFinishFailEvent(String payload) {
-        log.info("Receiving event {} from finish-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerFinishFailEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from finish-fail topic", event);
         orchestratorService.finishSagaFail(event);
     }
 }
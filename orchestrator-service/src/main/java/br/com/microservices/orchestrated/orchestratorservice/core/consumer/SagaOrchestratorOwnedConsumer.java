@@ -0,0 +1,69 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.OWNED_LISTENER_ID;
+
+/**
+ * Ownership-mode counterpart of {@link SagaOrchestratorConsumer}. A single container subscribes to every saga topic
+ * with the range assignor, so each consumer gets the same partition numbers on all of them and owns those sagas. The
+ * compensation lane shares this container, since splitting it off would break the partition alignment, and admission
+ * control holds back only its start-saga partitions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "saga.ownership.enabled", havingValue = "true")
+public class SagaOrchestratorOwnedConsumer {
+    private final EventCodec eventCodec;
+    private final OrchestratorService orchestratorService;
+
+    @Value("${spring.kafka.topic.start-saga}")
+    private String startSagaTopic;
+    @Value("${spring.kafka.topic.orchestrator}")
+    private String orchestratorTopic;
+    @Value("${spring.kafka.topic.orchestrator-compensation}")
+    private String orchestratorCompensationTopic;
+    @Value("${spring.kafka.topic.finish-success}")
+    private String finishSuccessTopic;
+
+    @KafkaListener(
+            id = OWNED_LISTENER_ID,
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = {
+                    "${spring.kafka.topic.start-saga}",
+                    "${spring.kafka.topic.orchestrator}",
+                    "${spring.kafka.topic.orchestrator-compensation}",
+                    "${spring.kafka.topic.finish-success}",
+                    "${spring.kafka.topic.finish-fail}"
+            },
+            concurrency = "${spring.kafka.listener.concurrency}",
+            properties = "partition.assignment.strategy=org.apache.kafka.clients.consumer.RangeAssignor"
+    )
+    public void consumerSagaEvent(@Payload byte[] payload, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        if (orchestratorTopic.equals(topic) || orchestratorCompensationTopic.equals(topic)) {
+            log.info("Receiving event of {} bytes from {} topic", payload.length, topic);
+            orchestratorService.continueSaga(payload);
+            return;
+        }
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from {} topic", event, topic);
+        if (startSagaTopic.equals(topic)) {
+            orchestratorService.startSaga(event);
+        } else if (finishSuccessTopic.equals(topic)) {
+            orchestratorService.finishSagaSuccess(event);
+        } else {
+            orchestratorService.finishSagaFail(event);
+        }
+    }
+}
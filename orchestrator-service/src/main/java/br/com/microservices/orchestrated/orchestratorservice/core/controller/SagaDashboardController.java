@@ -0,0 +1,47 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.controller;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dashboard.SagaDashboard;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.ActiveSaga;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.AgeBucket;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaDashboardSummary;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.ThroughputWindow;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/dashboard")
+public class SagaDashboardController {
+    private final SagaDashboard dashboard;
+
+    @GetMapping
+    public SagaDashboardSummary summary(@RequestParam(defaultValue = "10") int limit) {
+        return dashboard.summary(limit);
+    }
+
+    @GetMapping("in-flight")
+    public Map<String, Long> inFlightByStep() {
+        return dashboard.inFlightByStep();
+    }
+
+    @GetMapping("ages")
+    public List<AgeBucket> ages() {
+        return dashboard.ages();
+    }
+
+    @GetMapping("throughput")
+    public List<ThroughputWindow> throughput() {
+        return dashboard.throughput();
+    }
+
+    @GetMapping("slowest")
+    public List<ActiveSaga> slowest(@RequestParam(defaultValue = "10") int limit) {
+        return dashboard.slowest(limit);
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dashboard;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.ActiveSaga;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.AgeBucket;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.SagaDashboardSummary;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.ThroughputWindow;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Live view of in-flight sagas. Throughput comes from per-second rings bumped on the routing path; in-flight counts,
+ * ages and the slowest transactions are read from the state store's concurrent map at query time, so the routing path
+ * only pays one CAS per event.
+ */
+@Component
+public class SagaDashboard {
+
+    private static final long[] AGE_BOUNDS_MS = {1_000, 5_000, 30_000, 60_000, 300_000};
+    private static final int MAX_SLOWEST = 1000;
+
+    private final SagaStateStore stateStore;
+    private final int[] windows;
+    private final SlidingWindowCounter started;
+    private final SlidingWindowCounter stepReplies;
+    private final SlidingWindowCounter succeeded;
+    private final SlidingWindowCounter failed;
+
+    public SagaDashboard(SagaStateStore stateStore,
+                         @Value("${saga.dashboard.windows-seconds}") int[] windows) {
+        this.stateStore = stateStore;
+        this.windows = windows;
+        var capacity = Arrays.stream(windows).max().orElse(60);
+        this.started = new SlidingWindowCounter(capacity);
+        this.stepReplies = new SlidingWindowCounter(capacity);
+        this.succeeded = new SlidingWindowCounter(capacity);
+        this.failed = new SlidingWindowCounter(capacity);
+    }
+
+    public void sagaStarted() {
+        started.increment(currentSecond());
+    }
+
+    public void stepReplied() {
+        stepReplies.increment(currentSecond());
+    }
+
+    public void sagaFinished(ETopics outcome) {
+        if (ETopics.FINISH_SUCCESS.equals(outcome)) {
+            succeeded.increment(currentSecond());
+        } else {
+            failed.increment(currentSecond());
+        }
+    }
+
+    public SagaDashboardSummary summary(int limit) {
+        var inFlightByStep = this.inFlightByStep();
+        return SagaDashboardSummary
+                .builder()
+                .inFlight(inFlightByStep.values().stream().mapToLong(Long::longValue).sum())
+                .inFlightByStep(inFlightByStep)
+                .ages(this.ages())
+                .throughput(this.throughput())
+                .slowest(this.slowest(limit))
+                .build();
+    }
+
+    public Map<String, Long> inFlightByStep() {
+        return stateStore
+                .findAll()
+                .stream()
+                .collect(Collectors.groupingBy(instance -> instance.topic().getTopic(), TreeMap::new, Collectors.counting()));
+    }
+
+    public List<AgeBucket> ages() {
+        var counts = new long[AGE_BOUNDS_MS.length + 1];
+        var now = System.currentTimeMillis();
+        stateStore.findAll().forEach(instance -> counts[bucketOf(now - instance.startedAt())]++);
+        var buckets = new ArrayList<AgeBucket>(counts.length);
+        for (var index = 0; index < counts.length; index++) {
+            buckets.add(AgeBucket
+                    .builder()
+                    .fromMs(index == 0 ? 0 : AGE_BOUNDS_MS[index - 1])
+                    .toMs(index < AGE_BOUNDS_MS.length ? AGE_BOUNDS_MS[index] : null)
+                    .count(counts[index])
+                    .build());
+        }
+        return buckets;
+    }
+
+    public List<ThroughputWindow> throughput() {
+        var second = currentSecond();
+        return Arrays
+                .stream(windows)
+                .mapToObj(window -> {
+                    var finishedOk = succeeded.sum(second, window);
+                    var finishedFail = failed.sum(second, window);
+                    var startedCount = started.sum(second, window);
+                    return ThroughputWindow
+                            .builder()
+                            .windowSeconds(window)
+                            .started(startedCount)
+                            .stepReplies(stepReplies.sum(second, window))
+                            .succeeded(finishedOk)
+                            .failed(finishedFail)
+                            .startedPerSecond((double) startedCount / window)
+                            .finishedPerSecond((double) (finishedOk + finishedFail) / window)
+                            .build();
+                })
+                .toList();
+    }
+
+    public List<ActiveSaga> slowest(int limit) {
+        if (limit < 1 || limit > MAX_SLOWEST) {
+            throw new ValidationException("Limit must be between 1 and ".concat(String.valueOf(MAX_SLOWEST)));
+        }
+        var oldest = new PriorityQueue<SagaInstance>(limit + 1, Comparator.comparingLong(SagaInstance::startedAt).reversed());
+        stateStore.findAll().forEach(instance -> {
+            oldest.offer(instance);
+            if (oldest.size() > limit) {
+                oldest.poll();
+            }
+        });
+        var now = System.currentTimeMillis();
+        return oldest
+                .stream()
+                .sorted(Comparator.comparingLong(SagaInstance::startedAt))
+                .map(instance -> ActiveSaga
+                        .builder()
+                        .transactionId(instance.transactionId())
+                        .orderId(instance.orderId())
+                        .step(instance.topic().getTopic())
+                        .ageMs(now - instance.startedAt())
+                        .stepAgeMs(now - instance.updatedAt())
+                        .awaitingReply(instance.hasDeadline())
+                        .build())
+                .toList();
+    }
+
+    private static int bucketOf(long ageMs) {
+        var index = 0;
+        while (index < AGE_BOUNDS_MS.length && ageMs >= AGE_BOUNDS_MS[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    private static long currentSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
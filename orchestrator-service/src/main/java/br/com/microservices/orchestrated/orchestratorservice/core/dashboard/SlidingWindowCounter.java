@@ -0,0 +1,60 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dashboard;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring of per-second buckets. Each slot packs its epoch second and its count into one long, so an increment is a
+ * single CAS and a stale slot is reset by the first writer of the new second.
+ */
+public class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+
+    public SlidingWindowCounter(int seconds) {
+        this.slots = new AtomicLongArray(seconds);
+    }
+
+    public void increment(long epochSecond) {
+        var index = this.indexOf(epochSecond);
+        while (true) {
+            var current = slots.get(index);
+            var next = secondOf(current) == epochSecond
+                    ? current + (countOf(current) < COUNT_MASK ? 1 : 0)
+                    : epochSecond << COUNT_BITS | 1;
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    public long sum(long epochSecond, int windowSeconds) {
+        var window = Math.min(windowSeconds, slots.length());
+        var total = 0L;
+        for (var second = epochSecond - window + 1; second <= epochSecond; second++) {
+            var slot = slots.get(this.indexOf(second));
+            if (secondOf(slot) == second) {
+                total += countOf(slot);
+            }
+        }
+        return total;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private int indexOf(long epochSecond) {
+        return (int) Math.floorMod(epochSecond, (long) slots.length());
+    }
+
+    private static long secondOf(long slot) {
+        return slot >>> COUNT_BITS;
+    }
+
+    private static long countOf(long slot) {
+        return slot & COUNT_MASK;
+    }
+}
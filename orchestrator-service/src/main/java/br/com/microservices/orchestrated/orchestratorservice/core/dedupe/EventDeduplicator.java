@@ -0,0 +1,119 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedupe;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.EventRouting;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Remembers which (transactionId, topic, source, status) transitions were already routed so a redelivered event is
+ * dropped before it fans out again. A transition is only remembered once every event it sent was acknowledged, and
+ * inside a Kafka transaction only once it committed, so a failed or aborted attempt is still retried.
+ */
+@Component
+public class EventDeduplicator {
+
+    private static final String CACHE_NAME = "saga.dedupe";
+    private static final char SEPARATOR = '|';
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> routed;
+    private final RotatingBloomFilter bloomFilter;
+    private final Counter bloomNegatives;
+    private final Counter bloomFalsePositives;
+    private final Counter dropped;
+    private final SagaOrchestratorProducer producer;
+
+    public EventDeduplicator(@Value("${saga.dedupe.enabled}") boolean enabled,
+                             @Value("${saga.dedupe.max-size}") long maxSize,
+                             @Value("${saga.dedupe.ttl-ms}") long ttlMs,
+                             @Value("${saga.dedupe.bloom.enabled}") boolean bloomEnabled,
+                             @Value("${saga.dedupe.bloom.false-positive-rate}") double falsePositiveRate,
+                             MeterRegistry meterRegistry,
+                             SagaOrchestratorProducer producer) {
+        this.enabled = enabled;
+        this.producer = producer;
+        this.routed = Caffeine
+                .newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        this.bloomFilter = bloomEnabled ? new RotatingBloomFilter(maxSize, falsePositiveRate, ttlMs) : null;
+        this.bloomNegatives = this.counter(meterRegistry, "saga.dedupe.bloom", "negative");
+        this.bloomFalsePositives = this.counter(meterRegistry, "saga.dedupe.bloom", "false_positive");
+        this.dropped = this.counter(meterRegistry, "saga.dedupe.dropped", "duplicate");
+        CaffeineCacheMetrics.monitor(meterRegistry, routed, CACHE_NAME);
+    }
+
+    public String keyOf(ETopics topic, Event event) {
+        return this.keyOf(event.getTransactionId(), topic, event.getSource(), event.getStatus());
+    }
+
+    public String keyOf(ETopics topic, EventRouting routing) {
+        return this.keyOf(routing.transactionId(), topic, routing.source(), routing.status());
+    }
+
+    private String keyOf(String transactionId, ETopics topic, Object source, Object status) {
+        return transactionId + SEPARATOR + topic.getTopic() + SEPARATOR + source + SEPARATOR + status;
+    }
+
+    public boolean isDuplicate(String key) {
+        if (!enabled) {
+            return false;
+        }
+        if (bloomFilter != null && !bloomFilter.mightContain(key)) {
+            bloomNegatives.increment();
+            return false;
+        }
+        if (routed.getIfPresent(key) == null) {
+            if (bloomFilter != null) {
+                bloomFalsePositives.increment();
+            }
+            return false;
+        }
+        dropped.increment();
+        return true;
+    }
+
+    public void markRouted(String key) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    EventDeduplicator.this.remember(key);
+                }
+            });
+            return;
+        }
+        producer.afterSends(() -> this.remember(key));
+    }
+
+    private void remember(String key) {
+        routed.put(key, Boolean.TRUE);
+        if (bloomFilter != null) {
+            bloomFilter.put(key);
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter
+                .builder(name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dedupe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Two-generation Bloom filter. Keys go into the current generation and are looked up in both; every {@code ttlMs}
+ * the current generation becomes the previous one and a fresh one starts, so keys age out like the cache behind it.
+ */
+final class RotatingBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long ttlMs;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private volatile long rotatedAt;
+
+    RotatingBloomFilter(long expectedKeys, double falsePositiveRate, long ttlMs) {
+        var bits = Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedKeys * Math.log(2)));
+        this.ttlMs = ttlMs;
+        this.current = new AtomicLongArray((bitCount + 63) / 64);
+        this.previous = new AtomicLongArray((bitCount + 63) / 64);
+        this.rotatedAt = System.currentTimeMillis();
+    }
+
+    boolean mightContain(String key) {
+        var hash = hash(key);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    void put(String key) {
+        this.rotateIfExpired();
+        var bits = current;
+        var hash = hash(key);
+        for (var index = 0; index < hashCount; index++) {
+            var bit = bitOf(hash, index);
+            var mask = 1L << bit;
+            bits.getAndAccumulate(bit >>> 6, mask, (word, set) -> word | set);
+        }
+    }
+
+    private boolean contains(AtomicLongArray bits, long hash) {
+        for (var index = 0; index < hashCount; index++) {
+            var bit = bitOf(hash, index);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rotateIfExpired() {
+        var now = System.currentTimeMillis();
+        if (now - rotatedAt < ttlMs) {
+            return;
+        }
+        synchronized (this) {
+            if (now - rotatedAt >= ttlMs) {
+                previous = current;
+                current = new AtomicLongArray(previous.length());
+                rotatedAt = now;
+            }
+        }
+    }
+
+    private int bitOf(long hash, int index) {
+        var first = (int) hash;
+        var second = (int) (hash >>> 32);
+        return Math.floorMod(first + index * second, bitCount);
+    }
+
+    private static long hash(String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (var index = 0; index < key.length(); index++) {
+            hash ^= key.charAt(index);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveSaga {
+    private String transactionId;
+    private String orderId;
+    private String step;
+    private long ageMs;
+    private long stepAgeMs;
+    private boolean awaitingReply;
+}
@@ -0,0 +1,16 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgeBucket {
+    private long fromMs;
+    private Long toMs;
+    private long count;
+}
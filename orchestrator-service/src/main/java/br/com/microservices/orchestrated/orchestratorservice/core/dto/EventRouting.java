@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+
+/**
+ * The top-level fields of an {@link Event} the orchestrator needs to route it, read without mapping the order or its
+ * history.
+ */
+public record EventRouting(String id,
+                           String transactionId,
+                           String orderId,
+                           EEventSource source,
+                           ESagaStatus status) {
+}
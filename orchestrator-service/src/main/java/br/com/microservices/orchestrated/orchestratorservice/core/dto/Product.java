@@ -1,5 +1,6 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,5 +10,6 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class Product {
     private String code;
+    @JsonAlias("unitValue")
     private double unitValues;
 }
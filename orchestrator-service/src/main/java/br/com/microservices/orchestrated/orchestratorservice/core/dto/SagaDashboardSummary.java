@@ -0,0 +1,21 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaDashboardSummary {
+    private long inFlight;
+    private Map<String, Long> inFlightByStep;
+    private List<AgeBucket> ages;
+    private List<ThroughputWindow> throughput;
+    private List<ActiveSaga> slowest;
+}
@@ -0,0 +1,20 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThroughputWindow {
+    private int windowSeconds;
+    private long started;
+    private long stepReplies;
+    private long succeeded;
+    private long failed;
+    private double startedPerSecond;
+    private double finishedPerSecond;
+}
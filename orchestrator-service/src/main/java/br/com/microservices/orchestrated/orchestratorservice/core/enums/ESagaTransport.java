@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.enums;
+
+public enum ESagaTransport {
+    KAFKA,
+    IN_MEMORY
+}
@@ -12,7 +12,10 @@ public enum ETopics {
     PAYMENT_SUCCESS("payment-success"),
     PRODUCT_VALIDATION_FAIL("product-validation-fail"),
     PRODUCT_VALIDATION_SUCCESS("product-validation-success"),
-    START_SAGA("start-saga");
+    SAGA_HISTORY("saga-history"),
+    SAGA_STATE_CHANGELOG("saga-state-changelog"),
+    START_SAGA("start-saga"),
+    ORCHESTRATOR_COMPENSATION("orchestrator-compensation");
 
     private final String topic;
 
@@ -0,0 +1,80 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.metrics;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.ROLLBACK_PENDING;
+
+/**
+ * Orchestrator-side saga meters: {@code saga.step.duration} from dispatch to reply per step,
+ * {@code saga.rollback.transitions} per step and status, {@code saga.replies.untracked} for replies to sagas the
+ * orchestrator holds no state for, and the {@code saga.completion} histogram tagged by outcome and by the first step
+ * that asked for a rollback.
+ */
+@Component
+@RequiredArgsConstructor
+public class SagaMetrics {
+
+    private static final String NO_FAILED_STEP = "NONE";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EEventSource> failedSteps = new ConcurrentHashMap<>();
+
+    public void stepReplied(EEventSource step, ESagaStatus status, long dispatchedAt) {
+        Timer
+                .builder("saga.step.duration")
+                .tag("step", step.name())
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - dispatchedAt)));
+    }
+
+    public void rollbackTransition(String transactionId, EEventSource step, ESagaStatus status) {
+        Counter
+                .builder("saga.rollback.transitions")
+                .tag("step", step.name())
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment();
+        if (ROLLBACK_PENDING.equals(status)) {
+            failedSteps.putIfAbsent(transactionId, step);
+        }
+    }
+
+    public void untrackedReply(EEventSource step, ESagaStatus status) {
+        Counter
+                .builder("saga.replies.untracked")
+                .tag("step", step.name())
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void sagaFinished(String transactionId, ETopics outcome, Long startedAt) {
+        var failedStep = failedSteps.remove(transactionId);
+        if (startedAt == null) {
+            return;
+        }
+        Timer
+                .builder("saga.completion")
+                .tag("outcome", outcome.name())
+                .tag("failed_step", failedStep == null ? NO_FAILED_STEP : failedStep.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - startedAt)));
+    }
+
+    public void clear(String transactionId) {
+        failedSteps.remove(transactionId);
+    }
+}
@@ -1,23 +1,220 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.producer;
 
-import lombok.AllArgsConstructor;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerBackPressureException;
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.orchestratorservice.config.transport.InMemoryBus;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends are asynchronous but capped by {@code spring.kafka.producer.max-in-flight}: once the cap is reached the
+ * calling listener thread blocks, and fails with {@link ProducerBackPressureException} after
+ * {@code acquire-timeout-ms} so the record is redelivered instead of buffered without limit. A permit is held until
+ * the broker acknowledges the record or the bounded retries give up. With Kafka transactions enabled a failed send is
+ * not retried here: it aborts the listener transaction and the input record is redelivered instead. With the in-memory
+ * transport events are handed to the {@link InMemoryBus} and the permit is released right away.
+ * <p>
+ * The caller always learns the final outcome: a send blocks until it is acknowledged and throws
+ * {@link ProducerSendException} once the retries are exhausted, so the listener fails and the record is redelivered.
+ * Inside {@link #awaitSends} the sends of one routing step are pipelined and awaited together, and inside
+ * {@link #collectSends} they are handed back as a future so a batch can await all of its records at once.
+ */
 @Slf4j
 @Component
-@AllArgsConstructor
 public class SagaOrchestratorProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private static final ThreadLocal<SendScope> SCOPE = new ThreadLocal<>();
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ContextSnapshotFactory contextSnapshotFactory;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+    private final int maxAttempts;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final ScheduledExecutorService retryExecutor;
+    private final boolean transactional;
+    private final InMemoryBus inMemoryBus;
+
+    public SagaOrchestratorProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                                    ObjectProvider<InMemoryBus> inMemoryBus,
+                                    MeterRegistry meterRegistry,
+                                    ContextSnapshotFactory contextSnapshotFactory,
+                                    @Value("${spring.kafka.producer.max-in-flight}") int maxInFlight,
+                                    @Value("${spring.kafka.producer.acquire-timeout-ms}") long acquireTimeoutMs,
+                                    @Value("${spring.kafka.producer.retry.max-attempts}") int maxAttempts,
+                                    @Value("${spring.kafka.producer.retry.backoff-ms}") long backoffMs,
+                                    @Value("${spring.kafka.producer.retry.max-backoff-ms}") long maxBackoffMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.contextSnapshotFactory = contextSnapshotFactory;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.transactional = kafkaTemplate.isTransactional();
+        this.inMemoryBus = inMemoryBus.getIfAvailable();
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "kafka-producer-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge("saga.producer.in.flight", inFlight, permits -> maxInFlight - permits.availablePermits());
+    }
+
+    public void sendEvent(String key, byte[] payload, String topic) {
+        this.acquire(topic);
+        var outcome = new CompletableFuture<Void>();
+        this.send(key, payload, topic, 1, System.nanoTime(), contextSnapshotFactory.captureAll(), outcome);
+        var scope = SCOPE.get();
+        if (scope == null) {
+            this.await(outcome);
+            return;
+        }
+        scope.sends().add(outcome);
+    }
+
+    /**
+     * Runs {@code work} and returns once every event it sent reached its final outcome. Called inside
+     * {@link #collectSends} it returns right away and the sends join the enclosing scope.
+     */
+    public void awaitSends(Runnable work) {
+        var enclosed = SCOPE.get() != null;
+        var sends = this.collectSends(work);
+        if (!enclosed) {
+            this.await(sends);
+        }
+    }
+
+    /**
+     * Runs {@code work} without waiting for its sends. The returned future completes once all of them were
+     * acknowledged, after running the callbacks registered with {@link #afterSends}, or fails with the first
+     * {@link ProducerSendException}.
+     */
+    public CompletableFuture<Void> collectSends(Runnable work) {
+        var enclosing = SCOPE.get();
+        var scope = new SendScope(new ArrayList<>(), new ArrayList<>());
+        SCOPE.set(scope);
+        try {
+            work.run();
+        } finally {
+            if (enclosing == null) {
+                SCOPE.remove();
+            } else {
+                SCOPE.set(enclosing);
+            }
+        }
+        var sends = CompletableFuture
+                .allOf(scope.sends().toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> scope.callbacks().forEach(Runnable::run));
+        if (enclosing != null) {
+            enclosing.sends().add(sends);
+        }
+        return sends;
+    }
+
+    /**
+     * Defers {@code callback} until the sends of the current scope were acknowledged; outside a scope every send has
+     * already been acknowledged, so it runs right away.
+     */
+    public void afterSends(Runnable callback) {
+        var scope = SCOPE.get();
+        if (scope == null) {
+            callback.run();
+            return;
+        }
+        scope.callbacks().add(callback);
+    }
+
+    public void await(CompletableFuture<Void> sends) {
+        try {
+            sends.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ProducerSendException sendException) {
+                throw sendException;
+            }
+            throw new ProducerSendException("Error: trying to send events", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProducerSendException("Interrupted while waiting for events to be sent", e);
+        }
+    }
 
-    public void sendEvent(String payload, String topic) {
+    @PreDestroy
+    public void close() {
+        retryExecutor.shutdown();
+    }
+
+    private void acquire(String topic) {
         try {
-            log.info("Sending event to topic {} with data {}", topic, payload);
-            kafkaTemplate.send(topic, payload);
+            if (inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        meterRegistry.counter("saga.producer.rejected", "topic", topic).increment();
+        throw new ProducerBackPressureException("Too many in-flight events for topic ".concat(topic));
+    }
+
+    private void send(String key, byte[] payload, String topic, int attempt, long startedAt, ContextSnapshot context,
+                      CompletableFuture<Void> outcome) {
+        try {
+            log.info("Sending event to topic {} with {} bytes", topic, payload.length);
+            if (inMemoryBus != null) {
+                inMemoryBus.publish(topic, key, payload);
+                this.complete(key, payload, topic, attempt, startedAt, context, outcome, null);
+                return;
+            }
+            kafkaTemplate
+                    .send(topic, key, payload)
+                    .whenComplete((result, ex) ->
+                            this.complete(key, payload, topic, attempt, startedAt, context, outcome, ex));
         } catch (Exception e) {
-            log.error("Error: trying to send data to topic {} with data {}", topic, payload);
+            this.complete(key, payload, topic, attempt, startedAt, context, outcome, e);
+        }
+    }
+
+    private void complete(String key, byte[] payload, String topic, int attempt, long startedAt,
+                          ContextSnapshot context, CompletableFuture<Void> outcome, Throwable ex) {
+        if (ex != null && !transactional && attempt < maxAttempts && !retryExecutor.isShutdown()) {
+            var backoff = Math.min(backoffMs << Math.min(attempt - 1, 20), maxBackoffMs);
+            log.warn("Retrying send to topic {} in {}ms, attempt {} of {}", topic, backoff, attempt + 1, maxAttempts);
+            meterRegistry.counter("saga.producer.retries", "topic", topic).increment();
+            var retry = context.wrap(() -> this.send(key, payload, topic, attempt + 1, startedAt, context, outcome));
+            retryExecutor.schedule(retry, backoff, TimeUnit.MILLISECONDS);
+            return;
+        }
+        inFlight.release();
+        meterRegistry
+                .timer("saga.producer.send", "topic", topic, "outcome", ex == null ? "success" : "failure")
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        if (ex != null) {
+            log.error("Error: trying to send data to topic {} with {} bytes", topic, payload.length, ex);
+            outcome.completeExceptionally(new ProducerSendException("Error: trying to send data to topic ".concat(topic), ex));
+            return;
         }
+        outcome.complete(null);
+    }
+
+    private record SendScope(List<CompletableFuture<?>> sends, List<Runnable> callbacks) {
     }
 }
@@ -0,0 +1,94 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
+
+/**
+ * Collects the replies of the steps of a parallel stage. The stage moves on only when every branch
+ * has answered: forward when all of them succeeded, otherwise to the compensation of the whole stage.
+ * Replies are kept on the {@link SagaInstance}, so a partial join survives a restart or a handover.
+ */
+@Component
+@RequiredArgsConstructor
+public class ParallelStageJoin {
+
+    private final SagaStateStore stateStore;
+    private final EventCodec eventCodec;
+
+    public Optional<Event> join(Event event, SagaStage stage) {
+        var compensation = FAIL.equals(event.getStatus());
+        var completed = new ArrayList<Event>();
+
+        stateStore.update(event.getTransactionId(), instance -> {
+            var replies = this.repliesOf(instance, stage, compensation);
+            if (replies.containsKey(event.getSource())) {
+                return instance;
+            }
+            replies.put(event.getSource(), event);
+            if (replies.size() == stage.steps().size()) {
+                stage.steps().forEach(step -> completed.add(replies.get(step.source())));
+            }
+            return instance.withReply(eventCodec.encode(event));
+        });
+
+        if (completed.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(this.merge(completed, compensation));
+    }
+
+    public List<EEventSource> findMissingBranches(SagaInstance instance, SagaStage stage, boolean compensation) {
+        var replies = this.repliesOf(instance, stage, compensation);
+
+        return stage.steps().stream()
+                .map(SagaStep::source)
+                .filter(source -> !replies.containsKey(source))
+                .toList();
+    }
+
+    private Map<EEventSource, Event> repliesOf(SagaInstance instance, SagaStage stage, boolean compensation) {
+        var replies = new EnumMap<EEventSource, Event>(EEventSource.class);
+        instance.replies().stream()
+                .map(eventCodec::decode)
+                .filter(Objects::nonNull)
+                .filter(reply -> FAIL.equals(reply.getStatus()) == compensation)
+                .filter(reply -> stage.steps().stream().anyMatch(step -> step.source() == reply.getSource()))
+                .forEach(reply -> replies.putIfAbsent(reply.getSource(), reply));
+        return replies;
+    }
+
+    private Event merge(List<Event> replies, boolean compensation) {
+        var merged = replies.get(0);
+        var history = new LinkedHashSet<History>();
+
+        for (var reply : replies) {
+            if (reply.getEventHistory() != null) {
+                history.addAll(reply.getEventHistory());
+            }
+            if (reply.getPayload() != null && merged.getPayload() != null) {
+                merged.getPayload().setTotalAmount(Math.max(merged.getPayload().getTotalAmount(), reply.getPayload().getTotalAmount()));
+                merged.getPayload().setTotalItems(Math.max(merged.getPayload().getTotalItems(), reply.getPayload().getTotalItems()));
+            }
+        }
+        merged.setEventHistory(new ArrayList<>(history));
+
+        if (compensation) {
+            merged.setStatus(FAIL);
+            return merged;
+        }
+        var failed = replies.stream().filter(reply -> !SUCCESS.equals(reply.getStatus())).findFirst();
+        merged.setSource(failed.map(Event::getSource).orElse(merged.getSource()));
+        merged.setStatus(failed.isPresent() ? ROLLBACK_PENDING : SUCCESS);
+        return merged;
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
+import static java.lang.String.format;
+
+/**
+ * Declarative saga: an ordered list of stages, each made of one step or of independent steps that
+ * run in parallel. A step names the topic that executes it and the topic that compensates it; the
+ * success/rollback/fail edges are derived from the stage order when the definition is compiled into
+ * a {@link SagaTransitionTable}.
+ */
+public final class SagaDefinition {
+
+    private static final Set<ETopics> RESERVED_TOPICS =
+            EnumSet.of(START_SAGA, BASE_ORCHESTRATOR, FINISH_SUCCESS, FINISH_FAIL, NOTIFY_ENDING);
+
+    private final ESagaType type;
+    private final List<SagaStage> stages;
+
+    private SagaDefinition(ESagaType type, List<SagaStage> stages) {
+        this.type = type;
+        this.stages = List.copyOf(stages);
+    }
+
+    public static Builder of(ESagaType type) {
+        return new Builder(type);
+    }
+
+    public ESagaType getType() {
+        return type;
+    }
+
+    public List<SagaStage> getStages() {
+        return stages;
+    }
+
+    public List<SagaStep> getSteps() {
+        return stages.stream().flatMap(stage -> stage.steps().stream()).toList();
+    }
+
+    public SagaTransitionTable compile() {
+        this.validate();
+        var table = new SagaTransitionTable(type);
+        table.put(ORCHESTRATOR, SUCCESS, stages.get(0).successTopics());
+        table.put(ORCHESTRATOR, FAIL, List.of(FINISH_FAIL));
+
+        for (int i = 0; i < stages.size(); i++) {
+            var stage = stages.get(i);
+            var next = i + 1 < stages.size() ? stages.get(i + 1).successTopics() : List.of(FINISH_SUCCESS);
+            var previous = i > 0 ? stages.get(i - 1).failTopics() : List.of(FINISH_FAIL);
+
+            for (var step : stage.steps()) {
+                table.putStep(stage, step);
+                table.put(step.source(), SUCCESS, next);
+                table.put(step.source(), ROLLBACK_PENDING, stage.isParallel() ? stage.failTopics() : List.of(step.failTopic()));
+                table.put(step.source(), FAIL, previous);
+            }
+        }
+        table.verifyComplete(this.getSteps().stream().map(SagaStep::source).toList());
+        return table;
+    }
+
+    private void validate() {
+        if (stages.isEmpty()) {
+            throw new ValidationException(format("Saga %s must have at least one step.", type));
+        }
+        var sources = EnumSet.noneOf(EEventSource.class);
+        var topics = EnumSet.noneOf(ETopics.class);
+
+        this.getSteps().forEach(step -> {
+            if (step.source() == null || step.successTopic() == null || step.failTopic() == null) {
+                throw new ValidationException(format("Saga %s has an incomplete step: %s", type, step));
+            }
+            if (ORCHESTRATOR.equals(step.source()) || !sources.add(step.source())) {
+                throw new ValidationException(format("Saga %s has an invalid step source: %s", type, step.source()));
+            }
+            if (RESERVED_TOPICS.contains(step.successTopic()) || RESERVED_TOPICS.contains(step.failTopic())
+                    || !topics.add(step.successTopic()) || !topics.add(step.failTopic())) {
+                throw new ValidationException(format("Saga %s reuses a topic on step %s", type, step.source()));
+            }
+        });
+    }
+
+    public static final class Builder {
+        private final ESagaType type;
+        private final List<SagaStage> stages = new ArrayList<>();
+
+        private Builder(ESagaType type) {
+            this.type = type;
+        }
+
+        public Builder step(EEventSource source, ETopics successTopic, ETopics failTopic) {
+            return this.parallel(new SagaStep(source, successTopic, failTopic));
+        }
+
+        public Builder parallel(SagaStep... steps) {
+            if (steps.length == 0) {
+                throw new ValidationException(format("Saga %s has an empty stage.", type));
+            }
+            stages.add(new SagaStage(stages.size(), List.of(steps)));
+            return this;
+        }
+
+        public SagaDefinition build() {
+            return new SagaDefinition(type, stages);
+        }
+    }
+}
@@ -2,15 +2,21 @@ package br.com.microservices.orchestrated.orchestratorservice.core.saga;
 
 import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
 import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.EventRouting;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 
-import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
-import static br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler.*;
+import static br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaHandler.SAGA_DEFINITIONS;
 import static java.lang.String.format;
 
 @Slf4j
@@ -20,42 +26,54 @@ public class SagaExecutionController {
 
     private static final String SAGA_LOG_ID = "ORDER ID: %s | TRANSACTION ID %s | EVENT ID %s";
 
-    public ETopics getNextTopic(Event event) {
-        if(ObjectUtils.isEmpty(event.getSource()) || ObjectUtils.isEmpty(event.getStatus())) {
+    private final Map<ESagaType, SagaTransitionTable> transitions = SagaHandler.compile(SAGA_DEFINITIONS);
+
+    public List<ETopics> getNextTopics(ESagaType type, Event event) {
+        return this.getNextTopics(type, event.getSource(), event.getStatus(), this.createSagaId(event));
+    }
+
+    public List<ETopics> getNextTopics(ESagaType type, EventRouting routing) {
+        return this.getNextTopics(type, routing.source(), routing.status(),
+                format(SAGA_LOG_ID, routing.orderId(), routing.transactionId(), routing.id()));
+    }
+
+    private List<ETopics> getNextTopics(ESagaType type, EEventSource source, ESagaStatus status, String sagaId) {
+        if(ObjectUtils.isEmpty(source) || ObjectUtils.isEmpty(status)) {
             throw new ValidationException("Source and Status must be import.");
         }
-        var topic = this.findTopicBySourceAndStatus(event);
-        this.logCurrentSaga(event, topic);
-        return topic;
+        var topics = this.getTable(type).route(source, status);
+        this.logCurrentSaga(source, status, topics, sagaId);
+        return topics;
     }
 
-
-    private ETopics findTopicBySourceAndStatus(Event event) {
-        return (ETopics) (Arrays.stream(SAGA_HANDLER)
-                .filter(row -> isEventSourceAndStatusValid(event, row))
-                .map(row -> row[TOPIC_INDEX])
-                .findFirst()
-                .orElseThrow(() -> new ValidationException("Topic not found")));
+    public Optional<SagaStep> findStepByTopic(ESagaType type, ETopics topic) {
+        return this.getTable(type).findStepByTopic(topic);
     }
 
-    private boolean isEventSourceAndStatusValid(Event event, Object[] row) {
-        var source = row[EVENT_SOURCE_INDEX];
-        var status = row[SAGA_STATUS_INDEX];
+    public Optional<SagaStage> findStageBySource(ESagaType type, EEventSource source) {
+        return this.getTable(type).findStageBySource(source);
+    }
 
-        return event.getSource().equals(source) && event.getStatus().equals(status);
+    public boolean isCompensationTopic(ESagaType type, ETopics topic) {
+        return this.getTable(type).isCompensationTopic(topic);
     }
 
-    private void logCurrentSaga(Event event, ETopics topic) {
-        var sagaId = this.createSagaId(event);
-        var source = event.getSource();
+    private SagaTransitionTable getTable(ESagaType type) {
+        var table = transitions.get(type);
+        if (table == null) {
+            throw new ValidationException("Saga not found");
+        }
+        return table;
+    }
 
-        switch(event.getStatus()) {
+    private void logCurrentSaga(EEventSource source, ESagaStatus status, List<ETopics> topics, String sagaId) {
+        switch(status) {
             case SUCCESS -> log.info("### CURRENT SAGA: {} | SUCCESS | NEXT TOPIC {} | {}",
-                    source, topic, sagaId);
+                    source, topics, sagaId);
             case ROLLBACK_PENDING -> log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK CURRENT SERVICE | NEXT TOPIC {} | {}",
-                    source, topic, sagaId);
+                    source, topics, sagaId);
             case FAIL -> log.info("### CURRENT SAGA: {} | SENDING TO ROLLBACK PREVIOUS SERVICE | NEXT TOPIC {} | {}",
-                    source, topic, sagaId);
+                    source, topics, sagaId);
         }
     }
 
@@ -1,7 +1,13 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.saga;
 
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.*;
-import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.*;
 
 public final class SagaHandler {
@@ -9,24 +15,31 @@ public final class SagaHandler {
 
     }
 
-    public static final Object[][] SAGA_HANDLER = {
-            { ORCHESTRATOR, SUCCESS, PRODUCT_VALIDATION_SUCCESS} ,
-            { ORCHESTRATOR, FAIL, FINISH_FAIL},
-
-            { PRODUCT_VALIDATION_SERVICE, ROLLBACK_PENDING, PRODUCT_VALIDATION_FAIL },
-            { PRODUCT_VALIDATION_SERVICE, FAIL, FINISH_FAIL },
-            { PRODUCT_VALIDATION_SERVICE, SUCCESS, PAYMENT_SUCCESS },
-
-            { PAYMENT_SERVICE, ROLLBACK_PENDING, PAYMENT_FAIL},
-            { PAYMENT_SERVICE, FAIL, PRODUCT_VALIDATION_FAIL },
-            { PAYMENT_SERVICE, SUCCESS, INVENTORY_SUCCESS },
-
-            { INVENTORY_SERVICE, ROLLBACK_PENDING, INVENTORY_FAIL },
-            { INVENTORY_SERVICE, FAIL, PAYMENT_FAIL },
-            { INVENTORY_SERVICE, SUCCESS, FINISH_SUCCESS },
-    };
-
-    public static final int EVENT_SOURCE_INDEX = 0;
-    public static final int SAGA_STATUS_INDEX = 1;
-    public static final int TOPIC_INDEX = 2;
+    public static final SagaDefinition ORDER_SAGA = SagaDefinition
+            .of(ESagaType.ORDER)
+            .step(PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL)
+            .step(PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL)
+            .step(INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL)
+            .build();
+
+    public static final SagaDefinition ORDER_PARALLEL_SAGA = SagaDefinition
+            .of(ESagaType.ORDER_PARALLEL)
+            .step(PRODUCT_VALIDATION_SERVICE, PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_FAIL)
+            .parallel(
+                    new SagaStep(PAYMENT_SERVICE, PAYMENT_SUCCESS, PAYMENT_FAIL),
+                    new SagaStep(INVENTORY_SERVICE, INVENTORY_SUCCESS, INVENTORY_FAIL)
+            )
+            .build();
+
+    public static final List<SagaDefinition> SAGA_DEFINITIONS = List.of(ORDER_SAGA, ORDER_PARALLEL_SAGA);
+
+    public static Map<ESagaType, SagaTransitionTable> compile(List<SagaDefinition> definitions) {
+        var tables = new EnumMap<ESagaType, SagaTransitionTable>(ESagaType.class);
+        definitions.forEach(definition -> {
+            if (tables.put(definition.getType(), definition.compile()) != null) {
+                throw new ValidationException("Saga " + definition.getType() + " is defined more than once.");
+            }
+        });
+        return tables;
+    }
  }
@@ -0,0 +1,20 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.List;
+
+public record SagaStage(int index, List<SagaStep> steps) {
+
+    public boolean isParallel() {
+        return steps.size() > 1;
+    }
+
+    public List<ETopics> successTopics() {
+        return steps.stream().map(SagaStep::successTopic).toList();
+    }
+
+    public List<ETopics> failTopics() {
+        return steps.stream().map(SagaStep::failTopic).toList();
+    }
+}
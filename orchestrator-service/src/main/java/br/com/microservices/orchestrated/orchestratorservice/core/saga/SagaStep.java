@@ -0,0 +1,7 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+public record SagaStep(EEventSource source, ETopics successTopic, ETopics failTopic) {
+}
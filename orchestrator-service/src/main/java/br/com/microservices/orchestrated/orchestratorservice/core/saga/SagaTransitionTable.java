@@ -0,0 +1,96 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.saga;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
+import static java.lang.String.format;
+
+/**
+ * Dense {@code EEventSource x ESagaStatus -> ETopics} lookup compiled from a {@link SagaDefinition}.
+ * A transition out of a parallel stage fans out to every topic of the next stage.
+ */
+public final class SagaTransitionTable {
+
+    private static final int STATUS_COUNT = ESagaStatus.values().length;
+
+    private final ESagaType type;
+    private final List<List<ETopics>> transitions =
+            new ArrayList<>(Collections.nCopies(EEventSource.values().length * STATUS_COUNT, null));
+    private final SagaStep[] stepsByTopic = new SagaStep[ETopics.values().length];
+    private final SagaStage[] stagesBySource = new SagaStage[EEventSource.values().length];
+
+    SagaTransitionTable(ESagaType type) {
+        this.type = type;
+    }
+
+    public ESagaType getType() {
+        return type;
+    }
+
+    public List<ETopics> route(EEventSource source, ESagaStatus status) {
+        var topics = transitions.get(index(source, status));
+        if (topics == null) {
+            throw new ValidationException("Topic not found");
+        }
+        return topics;
+    }
+
+    public Optional<SagaStep> findStepByTopic(ETopics topic) {
+        return Optional.ofNullable(stepsByTopic[topic.ordinal()]);
+    }
+
+    public Optional<SagaStage> findStageBySource(EEventSource source) {
+        return Optional.ofNullable(stagesBySource[source.ordinal()]);
+    }
+
+    public boolean isCompensationTopic(ETopics topic) {
+        var step = stepsByTopic[topic.ordinal()];
+        return step != null && step.failTopic() == topic;
+    }
+
+    void putStep(SagaStage stage, SagaStep step) {
+        stepsByTopic[step.successTopic().ordinal()] = step;
+        stepsByTopic[step.failTopic().ordinal()] = step;
+        stagesBySource[step.source().ordinal()] = stage;
+    }
+
+    void put(EEventSource source, ESagaStatus status, List<ETopics> topics) {
+        var index = index(source, status);
+        if (transitions.get(index) != null) {
+            throw new ValidationException(format("Saga %s has more than one transition for %s %s", type, source, status));
+        }
+        transitions.set(index, List.copyOf(topics));
+    }
+
+    void verifyComplete(Collection<EEventSource> stepSources) {
+        var missing = new ArrayList<String>();
+        for (var source : stepSources) {
+            for (var status : new ESagaStatus[]{SUCCESS, ROLLBACK_PENDING, FAIL}) {
+                if (transitions.get(index(source, status)) == null) {
+                    missing.add(source + " " + status);
+                }
+            }
+        }
+        if (transitions.get(index(ORCHESTRATOR, SUCCESS)) == null || transitions.get(index(ORCHESTRATOR, FAIL)) == null) {
+            missing.add(ORCHESTRATOR.name());
+        }
+        if (!missing.isEmpty()) {
+            throw new ValidationException(format("Saga %s is missing transitions: %s", type, missing));
+        }
+    }
+
+    private static int index(EEventSource source, ESagaStatus status) {
+        return source.ordinal() * STATUS_COUNT + status.ordinal();
+    }
+}
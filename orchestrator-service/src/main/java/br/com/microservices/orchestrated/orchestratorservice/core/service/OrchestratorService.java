@@ -1,63 +1,290 @@
 package br.com.microservices.orchestrated.orchestratorservice.core.service;
 
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orchestratorservice.core.admission.SagaAdmissionControl;
+import br.com.microservices.orchestrated.orchestratorservice.core.dashboard.SagaDashboard;
+import br.com.microservices.orchestrated.orchestratorservice.core.dedupe.EventDeduplicator;
 import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.EventRouting;
 import br.com.microservices.orchestrated.orchestratorservice.core.dto.History;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.HistoryDelta;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EHistoryMode;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
 import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.metrics.SagaMetrics;
 import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.ParallelStageJoin;
 import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaStage;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
 import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ObjectUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.ORCHESTRATOR;
-import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
-import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.*;
 
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class OrchestratorService {
 
     private final SagaExecutionController sagaExecutionController;
+    private final ParallelStageJoin parallelStageJoin;
     private final SagaOrchestratorProducer producer;
+    private final EventCodec eventCodec;
     private final JsonUtil jsonUtil;
+    private final SagaStateStore stateStore;
+    private final SagaMetrics sagaMetrics;
+    private final SagaDashboard dashboard;
+    private final EventDeduplicator deduplicator;
+    private final SagaAdmissionControl admissionControl;
+
+    @Value("${saga.type}")
+    private ESagaType sagaType;
+    @Value("${saga.timeout.step-ms}")
+    private long stepTimeoutMs;
+    @Value("${saga.history.mode}")
+    private EHistoryMode historyMode;
 
     public void startSaga(Event event) {
+        this.routeOnce(ETopics.START_SAGA, event, this::routeStart);
+    }
+
+    public void finishSagaSuccess(Event event) {
+        this.routeOnce(ETopics.FINISH_SUCCESS, event, this::routeFinishSuccess);
+    }
+
+    public void finishSagaFail(Event event) {
+        this.routeOnce(ETopics.FINISH_FAIL, event, this::routeFinishFail);
+    }
+
+    public void continueSaga(Event event) {
+        this.routeOnce(ETopics.BASE_ORCHESTRATOR, event, this::routeReply);
+    }
+
+    /**
+     * Continues a saga straight from the participant's reply. A step reply adds no history, so when history travels
+     * with the event and the step is not part of a parallel stage, the reply is routed on its source and status alone
+     * and its original bytes are forwarded; otherwise it is decoded and routed like any other event.
+     */
+    public void continueSaga(byte[] payload) {
+        var routing = historyMode == EHistoryMode.DELTA ? null : eventCodec.decodeRouting(payload);
+        if (routing == null || this.isParallelStep(routing.source())) {
+            var event = eventCodec.decode(payload);
+            if (event == null) {
+                throw new ValidationException("Payload is not a valid event");
+            }
+            this.continueSaga(event);
+            return;
+        }
+        var key = deduplicator.keyOf(ETopics.BASE_ORCHESTRATOR, routing);
+        if (deduplicator.isDuplicate(key)) {
+            log.info("SAGA IGNORING DUPLICATE {} | {} FROM {} FOR EVENT {}",
+                    routing.source(), routing.status(), ETopics.BASE_ORCHESTRATOR.getTopic(), routing.id());
+            return;
+        }
+        producer.awaitSends(() -> {
+            this.routePassThrough(routing, payload);
+            deduplicator.markRouted(key);
+        });
+    }
+
+    public void timeoutSaga(SagaInstance instance) {
+        var step = sagaExecutionController.findStepByTopic(instance.type(), instance.topic());
+        var stage = step.flatMap(found -> sagaExecutionController.findStageBySource(instance.type(), found.source()));
+        if (stage.isEmpty() || eventCodec.decode(instance.event()) == null) {
+            log.error("Error: saga {} timed out on topic {} and could not be compensated",
+                    instance.transactionId(), instance.topic());
+            return;
+        }
+        var compensation = sagaExecutionController.isCompensationTopic(instance.type(), instance.topic());
+        var sources = stage.get().isParallel()
+                ? parallelStageJoin.findMissingBranches(instance, stage.get(), compensation)
+                : List.of(step.get().source());
+
+        sources.forEach(source -> {
+            var event = eventCodec.decode(instance.event());
+            event.setSource(source);
+            if (compensation) {
+                event.setStatus(FAIL);
+                this.addHistory(event, "SAGA TIMED OUT WAITING FOR ROLLBACK ON ".concat(source.name()));
+            } else {
+                event.setStatus(ROLLBACK_PENDING);
+                this.addHistory(event, "SAGA TIMED OUT WAITING FOR ".concat(source.name()));
+            }
+            this.routeOnce(ETopics.BASE_ORCHESTRATOR, event, this::routeContinue);
+        });
+    }
+
+    private void routeOnce(ETopics topic, Event event, Consumer<Event> route) {
+        var key = deduplicator.keyOf(topic, event);
+        if (deduplicator.isDuplicate(key)) {
+            log.info("SAGA IGNORING DUPLICATE {} | {} FROM {} FOR EVENT {}",
+                    event.getSource(), event.getStatus(), topic.getTopic(), event.getId());
+            return;
+        }
+        producer.awaitSends(() -> {
+            route.accept(event);
+            deduplicator.markRouted(key);
+        });
+    }
+
+    private void routeStart(Event event) {
         event.setSource(ORCHESTRATOR);
         event.setStatus(SUCCESS);
-        var topic = this.getTopic(event);
+        var topics = this.getTopics(event);
         log.info("SAGA STARTED");
         this.addHistory(event, "SAGA STARTED");
-        this.producer.sendEvent(jsonUtil.toJson(event), topic.getTopic());
+        this.sendAndTrack(event, topics);
+        dashboard.sagaStarted();
+        admissionControl.sagaStarted(event);
     }
 
-    public void finishSagaSuccess(Event event) {
+    private void routeFinishSuccess(Event event) {
         event.setSource(ORCHESTRATOR);
         event.setStatus(SUCCESS);
         log.info("SAGA FINISHED SUCCESSFULLY FOR EVENT {}", event.getId());
         this.addHistory(event, "SAGA FINISHED SUCCESSFULLY");
-        this.notifyFinishedSaga(event);
+        this.notifyFinishedSaga(event, ETopics.FINISH_SUCCESS);
     }
 
-    public void finishSagaFail(Event event) {
+    private void routeFinishFail(Event event) {
         event.setSource(ORCHESTRATOR);
         event.setStatus(FAIL);
         log.info("SAGA FINISHED WITH ERRORS FOR EVENT {}", event.getId());
         this.addHistory(event, "SAGA FINISHED FAIL");
-        this.notifyFinishedSaga(event);
+        this.notifyFinishedSaga(event, ETopics.FINISH_FAIL);
     }
 
-    public void continueSaga(Event event) {
-        var topic = this.getTopic(event);
+    private void routePassThrough(EventRouting routing, byte[] payload) {
+        if (!this.isAwaitedReply(routing.transactionId(), routing.source(), routing.status())) {
+            return;
+        }
+        this.recordStepReply(routing.transactionId(), routing.source(), routing.status());
+        var topics = sagaExecutionController.getNextTopics(sagaType, routing);
+        log.info("SAGA CONTINUING FOR EVENT {}", routing.id());
+        topics.forEach(topic -> this.producer.sendEvent(routing.orderId(), payload, topic.getTopic()));
+        this.track(routing.transactionId(), routing.orderId(), topics.get(0), payload);
+    }
+
+    private void routeReply(Event event) {
+        if (this.isAwaitedReply(event.getTransactionId(), event.getSource(), event.getStatus())) {
+            this.routeContinue(event);
+        }
+    }
+
+    private void routeContinue(Event event) {
+        this.recordStepReply(event.getTransactionId(), event.getSource(), event.getStatus());
+        var stage = sagaExecutionController.findStageBySource(sagaType, event.getSource());
+        if (stage.isPresent() && stage.get().isParallel()) {
+            this.joinParallelStage(event, stage.get());
+            return;
+        }
+        var topics = this.getTopics(event);
         log.info("SAGA CONTINUING FOR EVENT {}", event.getId());
-        this.producer.sendEvent(jsonUtil.toJson(event), topic.getTopic());
+        this.sendAndTrack(event, topics);
+    }
+
+    private void joinParallelStage(Event event, SagaStage stage) {
+        parallelStageJoin
+                .join(event, stage)
+                .ifPresentOrElse(joined -> {
+                    var topics = this.getTopics(joined);
+                    log.info("SAGA JOINED PARALLEL STEPS FOR EVENT {}", joined.getId());
+                    this.sendAndTrack(joined, topics);
+                }, () -> log.info("SAGA WAITING FOR PARALLEL STEPS FOR EVENT {}", event.getId()));
+    }
+
+    /**
+     * A reply is routed only while the saga is still waiting on the step that sent it. A reply that arrives after the
+     * saga moved on, or after a timeout claimed its deadline, would otherwise drive the saga down a second path. A reply
+     * for a saga with no state at all cannot be told apart from one for a saga that already finished, so it is dropped
+     * too, but counted and logged as a warning: the saga may have started before tracking or lost its state.
+     */
+    private boolean isAwaitedReply(String transactionId, EEventSource source, ESagaStatus status) {
+        var stored = stateStore.find(transactionId);
+        if (stored.isEmpty()) {
+            log.warn("SAGA DROPPING {} | {} REPLY FOR UNTRACKED TRANSACTION {}", source, status, transactionId);
+            sagaMetrics.untrackedReply(source, status);
+            return false;
+        }
+        var instance = stored.filter(SagaInstance::hasDeadline);
+        if (instance.isPresent() && this.isAwaitedFrom(instance.get(), source, status)) {
+            return true;
+        }
+        if (instance.isPresent() && this.isRoutedFrom(instance.get(), source, status)) {
+            log.info("SAGA REPUBLISHING {} FOR REDELIVERED {} | {} REPLY FOR TRANSACTION {}",
+                    instance.get().topic(), source, status, transactionId);
+            this.republish(instance.get());
+            return false;
+        }
+        log.info("SAGA IGNORING STALE {} | {} REPLY FOR TRANSACTION {}", source, status, transactionId);
+        return false;
+    }
+
+    private boolean isAwaitedFrom(SagaInstance instance, EEventSource source, ESagaStatus status) {
+        var compensation = sagaExecutionController.isCompensationTopic(instance.type(), instance.topic());
+        return compensation == FAIL.equals(status) && sagaExecutionController
+                .findStepByTopic(instance.type(), instance.topic())
+                .flatMap(step -> sagaExecutionController.findStageBySource(instance.type(), step.source()))
+                .map(stage -> stage.steps().stream().anyMatch(step -> step.source() == source))
+                .orElse(false);
+    }
+
+    /**
+     * A reply that already moved the saga comes back when publishing the move failed and the record was redelivered.
+     * The saga kept the event it published, so that event is sent again instead of routing the reply a second time.
+     */
+    private boolean isRoutedFrom(SagaInstance instance, EEventSource source, ESagaStatus status) {
+        var routed = eventCodec.decodeRouting(instance.event());
+        if (routed == null || routed.source() == null) {
+            return false;
+        }
+        return sagaExecutionController
+                .findStageBySource(instance.type(), routed.source())
+                .filter(stage -> stage.steps().stream().anyMatch(step -> step.source() == source))
+                .filter(stage -> routed.status() == status
+                        || stage.isParallel() && ROLLBACK_PENDING.equals(routed.status()) && SUCCESS.equals(status))
+                .isPresent();
+    }
+
+    private void republish(SagaInstance instance) {
+        sagaExecutionController
+                .getNextTopics(instance.type(), eventCodec.decodeRouting(instance.event()))
+                .forEach(topic -> this.producer.sendEvent(instance.orderId(), instance.event(), topic.getTopic()));
     }
 
-    private ETopics getTopic(Event event) {
-        return sagaExecutionController.getNextTopic(event);
+    private void recordStepReply(String transactionId, EEventSource source, ESagaStatus status) {
+        dashboard.stepReplied();
+        stateStore
+                .find(transactionId)
+                .ifPresent(instance -> sagaMetrics.stepReplied(source, status, instance.updatedAt()));
+        if (!SUCCESS.equals(status)) {
+            sagaMetrics.rollbackTransition(transactionId, source, status);
+        }
+    }
+
+    private boolean isParallelStep(EEventSource source) {
+        return sagaExecutionController
+                .findStageBySource(sagaType, source)
+                .map(SagaStage::isParallel)
+                .orElse(false);
+    }
+
+    private List<ETopics> getTopics(Event event) {
+        return sagaExecutionController.getNextTopics(sagaType, event);
     }
 
     private void addHistory(Event event, String message) {
@@ -73,7 +300,51 @@ public class OrchestratorService {
 
     }
 
-    private void notifyFinishedSaga(Event event) {
-        this.producer.sendEvent(jsonUtil.toJson(event), ETopics.NOTIFY_ENDING.getTopic());
+    private void sendAndTrack(Event event, List<ETopics> topics) {
+        this.publishHistoryDelta(event);
+        var payload = eventCodec.encode(event);
+        topics.forEach(topic -> this.producer.sendEvent(event.getOrderId(), payload, topic.getTopic()));
+        this.track(event.getTransactionId(), event.getOrderId(), topics.get(0), payload);
+    }
+
+    private void publishHistoryDelta(Event event) {
+        if (historyMode != EHistoryMode.DELTA || ObjectUtils.isEmpty(event.getEventHistory())) {
+            return;
+        }
+        var delta = HistoryDelta
+                .builder()
+                .transactionId(event.getTransactionId())
+                .orderId(event.getOrderId())
+                .sequence(event.getHistorySequence())
+                .entries(event.getEventHistory())
+                .build();
+        this.producer.sendEvent(event.getOrderId(), jsonUtil.toJsonBytes(delta), ETopics.SAGA_HISTORY.getTopic());
+        event.setHistorySequence(event.getHistorySequence() + event.getEventHistory().size());
+        event.setEventHistory(null);
+    }
+
+    private void track(String transactionId, String orderId, ETopics topic, byte[] payload) {
+        var now = System.currentTimeMillis();
+        var awaitingStep = sagaExecutionController.findStepByTopic(sagaType, topic).isPresent();
+        stateStore.save(new SagaInstance(
+                transactionId,
+                orderId,
+                sagaType,
+                topic,
+                now,
+                now,
+                awaitingStep ? now + stepTimeoutMs : SagaInstance.NO_DEADLINE,
+                payload,
+                List.of()
+        ));
+    }
+
+    private void notifyFinishedSaga(Event event, ETopics outcome) {
+        this.producer.sendEvent(event.getOrderId(), eventCodec.encode(event), ETopics.NOTIFY_ENDING.getTopic());
+        var finished = stateStore.remove(event.getTransactionId());
+        var startedAt = finished.map(SagaInstance::startedAt).orElse(null);
+        sagaMetrics.sagaFinished(event.getTransactionId(), outcome, startedAt);
+        dashboard.sagaFinished(outcome);
+        admissionControl.sagaFinished(startedAt);
     }
 }
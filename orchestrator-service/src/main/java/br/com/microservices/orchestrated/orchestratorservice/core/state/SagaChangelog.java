@@ -0,0 +1,91 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Properties;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics.SAGA_STATE_CHANGELOG;
+
+/**
+ * Compacted changelog of saga instances keyed by orderId, so changelog partition {@code n} holds exactly the sagas
+ * routed through partition {@code n} of the saga topics. A new owner rebuilds its partitions from here on assignment.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaChangelog {
+
+    private static final String RESTORE_CLIENT_ID = "saga-changelog-restore";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Value("${saga.ownership.enabled}")
+    private boolean enabled;
+    @Value("${saga.ownership.restore-poll-ms}")
+    private long restorePollMs;
+    @Value("${spring.kafka.topic.partitions}")
+    private int partitionCount;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int partitionOf(String orderId) {
+        return Utils.toPositive(Utils.murmur2(orderId.getBytes(StandardCharsets.UTF_8))) % partitionCount;
+    }
+
+    public void append(SagaInstance instance) {
+        if (enabled) {
+            kafkaTemplate.send(SAGA_STATE_CHANGELOG.getTopic(), instance.orderId(), SagaStateLog.encode(instance));
+        }
+    }
+
+    public void tombstone(SagaInstance instance) {
+        if (enabled) {
+            kafkaTemplate.send(SAGA_STATE_CHANGELOG.getTopic(), instance.orderId(), null);
+        }
+    }
+
+    public void flush() {
+        if (enabled) {
+            kafkaTemplate.flush();
+        }
+    }
+
+    public Collection<SagaInstance> restore(Collection<Integer> partitions) {
+        var topicPartitions = partitions.stream()
+                .map(partition -> new TopicPartition(SAGA_STATE_CHANGELOG.getTopic(), partition))
+                .toList();
+        var restored = new HashMap<String, SagaInstance>();
+        var properties = new Properties();
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        try (var consumer = consumerFactory.createConsumer(null, RESTORE_CLIENT_ID, null, properties)) {
+            consumer.assign(topicPartitions);
+            consumer.seekToBeginning(topicPartitions);
+            var endOffsets = consumer.endOffsets(topicPartitions);
+            while (topicPartitions.stream().anyMatch(partition -> consumer.position(partition) < endOffsets.get(partition))) {
+                for (var record : consumer.poll(Duration.ofMillis(restorePollMs))) {
+                    if (record.value() == null) {
+                        restored.remove(record.key());
+                    } else {
+                        restored.put(record.key(), SagaStateLog.decode(record.value()));
+                    }
+                }
+            }
+        }
+        return restored.values();
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code replies} holds the encoded branch replies of the parallel stage the saga is waiting on, so a partial join is
+ * persisted and handed over with the rest of the saga.
+ */
+public record SagaInstance(String transactionId,
+                           String orderId,
+                           ESagaType type,
+                           ETopics topic,
+                           long startedAt,
+                           long updatedAt,
+                           long deadline,
+                           byte[] event,
+                           List<byte[]> replies) {
+
+    public static final long NO_DEADLINE = 0L;
+
+    public boolean hasDeadline() {
+        return deadline != NO_DEADLINE;
+    }
+
+    public SagaInstance withoutDeadline() {
+        return new SagaInstance(transactionId, orderId, type, topic, startedAt, updatedAt, NO_DEADLINE, event, replies);
+    }
+
+    public SagaInstance withReply(byte[] reply) {
+        var joined = new ArrayList<>(replies);
+        joined.add(reply);
+        return new SagaInstance(transactionId, orderId, type, topic, startedAt, updatedAt, deadline, event,
+                List.copyOf(joined));
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.metrics.SagaMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Hands saga ownership over on rebalance. The saga topics are co-partitioned by orderId and consumed by one
+ * container, so partition {@code n} of every topic lands on the same consumer and that consumer owns the sagas of
+ * partition {@code n}. Revoked partitions are flushed to the changelog and dropped; assigned ones are rebuilt from it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "saga.ownership.enabled", havingValue = "true")
+public class SagaOwnershipListener implements ConsumerAwareRebalanceListener {
+
+    private final SagaStateStore stateStore;
+    private final SagaChangelog changelog;
+    private final SagaMetrics sagaMetrics;
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        changelog.flush();
+        this.release(partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        this.release(partitions);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        var start = System.currentTimeMillis();
+        var owned = partitionsOf(partitions);
+        var restored = changelog.restore(owned);
+        stateStore.restore(restored);
+        log.info("Took ownership of partitions {}: restored {} sagas in {} ms",
+                owned, restored.size(), System.currentTimeMillis() - start);
+    }
+
+    private void release(Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        var owned = partitionsOf(partitions);
+        var released = stateStore.release(owned);
+        released.forEach(sagaMetrics::clear);
+        log.info("Released ownership of partitions {}: dropped {} sagas", owned, released.size());
+    }
+
+    private static Set<Integer> partitionsOf(Collection<TopicPartition> partitions) {
+        var owned = new TreeSet<Integer>();
+        partitions.forEach(partition -> owned.add(partition.partition()));
+        return owned;
+    }
+}
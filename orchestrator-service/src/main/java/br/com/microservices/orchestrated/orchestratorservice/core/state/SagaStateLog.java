@@ -0,0 +1,304 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only, memory-mapped journal of saga instances. Records are {@code [length][crc][op][payload]}
+ * and a zero length marks the end of a segment. When a segment fills up a new generation is opened;
+ * a snapshot covers everything before the generation it names, so older segments can be deleted.
+ */
+final class SagaStateLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "saga-state-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_FILE = "saga-state.snapshot";
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long generation;
+
+    SagaStateLog(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    synchronized Map<String, SagaInstance> recover() throws IOException {
+        Files.createDirectories(directory);
+        var instances = new HashMap<String, SagaInstance>();
+        var snapshotGeneration = this.readSnapshot(instances);
+        var lastGeneration = snapshotGeneration;
+
+        for (var segment : this.listSegments()) {
+            var segmentGeneration = generationOf(segment);
+            if (segmentGeneration >= snapshotGeneration) {
+                this.replay(segment, instances);
+                lastGeneration = Math.max(lastGeneration, segmentGeneration);
+            }
+        }
+        this.open(lastGeneration + 1);
+        return instances;
+    }
+
+    synchronized void put(SagaInstance instance) {
+        this.append(PUT, encode(instance));
+    }
+
+    synchronized void remove(String transactionId) {
+        this.append(REMOVE, transactionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    synchronized long roll() throws IOException {
+        this.open(generation + 1);
+        return generation;
+    }
+
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    synchronized void flush() {
+        buffer.force();
+    }
+
+    void writeSnapshot(long coveredGeneration, Collection<SagaInstance> instances) throws IOException {
+        var temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeLong(coveredGeneration);
+            for (var instance : instances) {
+                var bytes = encode(instance);
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+            output.writeInt(0);
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (var segment : this.listSegments()) {
+            if (generationOf(segment) < coveredGeneration) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    private void append(byte op, byte[] payload) {
+        var size = HEADER_SIZE + payload.length;
+        if (size + Integer.BYTES > segmentSize) {
+            throw new IllegalStateException("Saga state record does not fit in a log segment: " + size);
+        }
+        try {
+            if (buffer.remaining() < size + Integer.BYTES) {
+                this.roll();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        var crc = new CRC32();
+        crc.update(op);
+        crc.update(payload);
+
+        var start = buffer.position();
+        buffer.position(start + Integer.BYTES);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(op);
+        buffer.put(payload);
+        buffer.putInt(buffer.position(), 0);
+        buffer.putInt(start, size);
+    }
+
+    private void open(long nextGeneration) throws IOException {
+        this.close();
+        generation = nextGeneration;
+        channel = FileChannel.open(this.segmentPath(generation), CREATE, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private long readSnapshot(Map<String, SagaInstance> instances) throws IOException {
+        var snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            return 0L;
+        }
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            var coveredGeneration = input.readLong();
+            int length;
+            while ((length = input.readInt()) > 0) {
+                var bytes = input.readNBytes(length);
+                var instance = decode(ByteBuffer.wrap(bytes));
+                instances.put(instance.transactionId(), instance);
+            }
+            return coveredGeneration;
+        }
+    }
+
+    private void replay(Path segment, Map<String, SagaInstance> instances) throws IOException {
+        try (var segmentChannel = FileChannel.open(segment, READ)) {
+            var data = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+            while (data.remaining() >= HEADER_SIZE) {
+                var size = data.getInt();
+                if (size < HEADER_SIZE || size - Integer.BYTES > data.remaining()) {
+                    return;
+                }
+                var crc = data.getInt();
+                var op = data.get();
+                var payload = new byte[size - HEADER_SIZE];
+                data.get(payload);
+
+                var check = new CRC32();
+                check.update(op);
+                check.update(payload);
+                if ((int) check.getValue() != crc) {
+                    return;
+                }
+                if (op == PUT) {
+                    var instance = decode(ByteBuffer.wrap(payload));
+                    instances.put(instance.transactionId(), instance);
+                } else if (op == REMOVE) {
+                    instances.remove(new String(payload, StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted((first, second) -> Long.compare(generationOf(first), generationOf(second)))
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segmentGeneration) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentGeneration, SEGMENT_SUFFIX));
+    }
+
+    private static long generationOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static byte[] encode(SagaInstance instance) {
+        var bytes = new ByteArrayOutputStream(256 + (instance.event() == null ? 0 : instance.event().length));
+        try (var output = new DataOutputStream(bytes)) {
+            writeString(output, instance.transactionId());
+            writeString(output, instance.orderId());
+            output.writeByte(instance.type().ordinal());
+            output.writeByte(instance.topic().ordinal());
+            output.writeLong(instance.startedAt());
+            output.writeLong(instance.updatedAt());
+            output.writeLong(instance.deadline());
+            writeBytes(output, instance.event());
+            output.writeInt(instance.replies().size());
+            for (var reply : instance.replies()) {
+                writeBytes(output, reply);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static SagaInstance decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    private static SagaInstance decode(ByteBuffer data) {
+        return new SagaInstance(
+                readString(data),
+                readString(data),
+                ESagaType.values()[data.get()],
+                ETopics.values()[data.get()],
+                data.getLong(),
+                data.getLong(),
+                data.getLong(),
+                readBytes(data),
+                readReplies(data)
+        );
+    }
+
+    /**
+     * Records written before partial joins were persisted end right after the event.
+     */
+    private static List<byte[]> readReplies(ByteBuffer data) {
+        if (!data.hasRemaining()) {
+            return List.of();
+        }
+        var count = data.getInt();
+        var replies = new ArrayList<byte[]>(count);
+        for (var i = 0; i < count; i++) {
+            replies.add(readBytes(data));
+        }
+        return List.copyOf(replies);
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(value.length);
+        output.write(value);
+    }
+
+    private static byte[] readBytes(ByteBuffer data) {
+        var length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer data) {
+        var length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var bytes = new byte[length];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
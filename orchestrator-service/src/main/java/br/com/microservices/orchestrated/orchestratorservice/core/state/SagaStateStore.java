@@ -0,0 +1,226 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SagaStateStore {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    private final Map<String, SagaInstance> instances = new ConcurrentHashMap<>();
+    private final ReadWriteLock rollLock = new ReentrantReadWriteLock();
+    private final SagaTimeoutScheduler timeoutScheduler;
+    private final SagaChangelog changelog;
+
+    @Value("${saga.state.dir}")
+    private String directory;
+    @Value("${saga.state.log-size-mb}")
+    private int logSizeMb;
+    @Value("${saga.state.snapshot-interval-ms}")
+    private long snapshotIntervalMs;
+
+    private SagaStateLog stateLog;
+    private long snapshotGeneration;
+    private long lastSnapshotAt;
+
+    @PostConstruct
+    public void recover() throws IOException {
+        var start = System.currentTimeMillis();
+        stateLog = new SagaStateLog(Path.of(directory), logSizeMb * MEGABYTE);
+        var recovered = stateLog.recover();
+        snapshotGeneration = stateLog.getGeneration();
+        lastSnapshotAt = start;
+        if (changelog.isEnabled()) {
+            log.info("Saga ownership enabled, skipping {} local sagas until partitions are assigned", recovered.size());
+            return;
+        }
+        instances.putAll(recovered);
+        instances.values().stream()
+                .filter(SagaInstance::hasDeadline)
+                .forEach(instance -> timeoutScheduler.schedule(instance.transactionId(), instance.deadline()));
+        log.info("Recovered {} in-flight sagas from {} in {} ms",
+                instances.size(), directory, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Stores {@code instance}, keeping the start time of an earlier version. Like {@link #update}, the result is
+     * journaled and appended to the changelog under the saga's lock.
+     */
+    public void save(SagaInstance instance) {
+        rollLock.readLock().lock();
+        try {
+            instances.compute(instance.transactionId(), (transactionId, current) -> {
+                var merged = current == null ? instance : new SagaInstance(instance.transactionId(), instance.orderId(),
+                        instance.type(), instance.topic(), current.startedAt(), instance.updatedAt(),
+                        instance.deadline(), instance.event(), instance.replies());
+                stateLog.put(merged);
+                changelog.append(merged);
+                return merged;
+            });
+        } finally {
+            rollLock.readLock().unlock();
+        }
+        if (instance.hasDeadline()) {
+            timeoutScheduler.schedule(instance.transactionId(), instance.deadline());
+        }
+    }
+
+    /**
+     * Applies {@code update} to a saga that is still in flight. The result is journaled and appended to the changelog
+     * under the same lock as the update, so concurrent updates of one saga reach the changelog in order.
+     */
+    public Optional<SagaInstance> update(String transactionId, UnaryOperator<SagaInstance> update) {
+        rollLock.readLock().lock();
+        try {
+            return Optional.ofNullable(instances.computeIfPresent(transactionId, (id, current) -> {
+                var updated = update.apply(current);
+                if (updated != current) {
+                    stateLog.put(updated);
+                    changelog.append(updated);
+                }
+                return updated;
+            }));
+        } finally {
+            rollLock.readLock().unlock();
+        }
+    }
+
+    public Optional<SagaInstance> remove(String transactionId) {
+        var removed = new SagaInstance[1];
+        rollLock.readLock().lock();
+        try {
+            instances.computeIfPresent(transactionId, (id, current) -> {
+                removed[0] = current;
+                stateLog.remove(id);
+                changelog.tombstone(current);
+                return null;
+            });
+        } finally {
+            rollLock.readLock().unlock();
+        }
+        return Optional.ofNullable(removed[0]);
+    }
+
+    public Optional<SagaInstance> claimTimeout(SagaTimeout timeout) {
+        var claimed = new SagaInstance[1];
+        rollLock.readLock().lock();
+        try {
+            instances.computeIfPresent(timeout.transactionId(), (transactionId, current) -> {
+                if (current.deadline() != timeout.deadline()) {
+                    return current;
+                }
+                claimed[0] = current;
+                var expired = current.withoutDeadline();
+                stateLog.put(expired);
+                changelog.append(expired);
+                return expired;
+            });
+        } finally {
+            rollLock.readLock().unlock();
+        }
+        return Optional.ofNullable(claimed[0]);
+    }
+
+    /**
+     * Drops the sagas routed through the given partitions after they were handed to another instance. The changelog
+     * is not touched, the new owner restores them from it.
+     */
+    public List<String> release(Collection<Integer> partitions) {
+        var released = new ArrayList<String>();
+        rollLock.readLock().lock();
+        try {
+            instances.values().removeIf(instance -> {
+                if (!partitions.contains(changelog.partitionOf(instance.orderId()))) {
+                    return false;
+                }
+                stateLog.remove(instance.transactionId());
+                released.add(instance.transactionId());
+                return true;
+            });
+        } finally {
+            rollLock.readLock().unlock();
+        }
+        return released;
+    }
+
+    public void restore(Collection<SagaInstance> restored) {
+        rollLock.readLock().lock();
+        try {
+            restored.forEach(instance -> {
+                instances.put(instance.transactionId(), instance);
+                stateLog.put(instance);
+            });
+        } finally {
+            rollLock.readLock().unlock();
+        }
+        restored.stream()
+                .filter(SagaInstance::hasDeadline)
+                .forEach(instance -> timeoutScheduler.schedule(instance.transactionId(), instance.deadline()));
+    }
+
+    public Optional<SagaInstance> find(String transactionId) {
+        return Optional.ofNullable(instances.get(transactionId));
+    }
+
+    public Collection<SagaInstance> findAll() {
+        return Collections.unmodifiableCollection(instances.values());
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    @Scheduled(fixedDelayString = "${saga.state.flush-interval-ms}")
+    public void flush() {
+        stateLog.flush();
+        if (stateLog.getGeneration() != snapshotGeneration
+                || System.currentTimeMillis() - lastSnapshotAt >= snapshotIntervalMs) {
+            this.snapshot();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        this.snapshot();
+        stateLog.close();
+    }
+
+    private void snapshot() {
+        try {
+            long generation;
+            rollLock.writeLock().lock();
+            try {
+                generation = stateLog.roll();
+            } finally {
+                rollLock.writeLock().unlock();
+            }
+            stateLog.writeSnapshot(generation, instances.values());
+            snapshotGeneration = generation;
+            lastSnapshotAt = System.currentTimeMillis();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+public record SagaTimeout(String transactionId, long deadline) {
+}
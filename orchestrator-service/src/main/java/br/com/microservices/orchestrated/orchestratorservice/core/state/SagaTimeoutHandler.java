@@ -0,0 +1,32 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class SagaTimeoutHandler {
+
+    private final SagaTimeoutScheduler timeoutScheduler;
+    private final SagaStateStore stateStore;
+    private final OrchestratorService orchestratorService;
+
+    @PostConstruct
+    public void register() {
+        timeoutScheduler.onTimeout(this::handleTimeout);
+    }
+
+    private void handleTimeout(SagaTimeout timeout) {
+        stateStore
+                .claimTimeout(timeout)
+                .ifPresent(instance -> {
+                    log.info("SAGA TIMED OUT WAITING FOR TOPIC {} | TRANSACTION ID {}",
+                            instance.topic(), instance.transactionId());
+                    orchestratorService.timeoutSaga(instance);
+                });
+    }
+}
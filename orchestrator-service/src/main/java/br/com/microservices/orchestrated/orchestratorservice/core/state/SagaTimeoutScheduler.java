@@ -0,0 +1,83 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+public class SagaTimeoutScheduler {
+
+    private final Queue<SagaTimeout> pending = new ConcurrentLinkedQueue<>();
+    private final long tickMs;
+    private final TimingWheel wheel;
+    private volatile Consumer<SagaTimeout> handler;
+    private volatile boolean running;
+    private Thread driver;
+
+    public SagaTimeoutScheduler(@Value("${saga.timeout.tick-ms}") long tickMs,
+                                @Value("${saga.timeout.wheel-size}") int wheelSize) {
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    public void schedule(String transactionId, long deadline) {
+        pending.add(new SagaTimeout(transactionId, deadline));
+    }
+
+    public synchronized void onTimeout(Consumer<SagaTimeout> handler) {
+        this.handler = handler;
+        if (driver == null) {
+            running = true;
+            driver = new Thread(this::run, "saga-timeout-wheel");
+            driver.setDaemon(true);
+            driver.start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (driver != null) {
+            driver.interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                SagaTimeout timeout;
+                while ((timeout = pending.poll()) != null) {
+                    this.reinsert(timeout);
+                }
+                wheel.advance(System.currentTimeMillis(), this::reinsert);
+                TimeUnit.MILLISECONDS.sleep(tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error: advancing saga timeout wheel: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reinsert(SagaTimeout timeout) {
+        if (!wheel.add(timeout)) {
+            this.fire(timeout);
+        }
+    }
+
+    private void fire(SagaTimeout timeout) {
+        try {
+            handler.accept(timeout);
+        } catch (Exception e) {
+            log.error("Error: handling timeout for transaction {}: {}", timeout.transactionId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Each level covers {@code tickMs * wheelSize} and hands timeouts beyond
+ * that range to a coarser overflow level, so any number of sagas share a handful of buckets instead
+ * of owning a timer each. Not thread safe: only the {@link SagaTimeoutScheduler} driver touches it.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<SagaTimeout>> buckets;
+    private long currentTime;
+    private TimingWheel overflow;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    boolean add(SagaTimeout timeout) {
+        var deadline = timeout.deadline();
+        if (deadline < currentTime + tickMs) {
+            return false;
+        }
+        if (deadline < currentTime + interval) {
+            buckets.get((int) ((deadline / tickMs) % wheelSize)).add(timeout);
+            return true;
+        }
+        return this.overflow().add(timeout);
+    }
+
+    void advance(long now, Consumer<SagaTimeout> reinsert) {
+        while (currentTime + tickMs <= now) {
+            this.tick(reinsert);
+        }
+    }
+
+    private void tick(Consumer<SagaTimeout> reinsert) {
+        currentTime += tickMs;
+        if (overflow != null && currentTime % overflow.tickMs == 0) {
+            overflow.tick(reinsert);
+        }
+        var bucket = buckets.get((int) ((currentTime / tickMs) % wheelSize));
+        if (!bucket.isEmpty()) {
+            var expired = new ArrayList<>(bucket);
+            bucket.clear();
+            expired.forEach(reinsert);
+        }
+    }
+
+    private TimingWheel overflow() {
+        if (overflow == null) {
+            overflow = new TimingWheel(interval, wheelSize, currentTime);
+        }
+        return overflow;
+    }
+}
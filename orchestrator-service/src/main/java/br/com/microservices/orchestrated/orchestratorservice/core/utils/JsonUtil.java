@@ -2,6 +2,10 @@ package br.com.microservices.orchestrated.orchestratorservice.core.utils;
 
 
 import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.EventRouting;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -19,6 +23,22 @@ public class JsonUtil {
         }
     }
 
+    public byte[] toJsonBytes(Object object) {
+        try {
+            return mapper.writeValueAsBytes(object);
+        } catch (Exception e) {
+            return new byte[0];
+        }
+    }
+
+    public Event toEvent(byte[] json) {
+        try {
+            return mapper.readValue(json, Event.class);
+        } catch(Exception e) {
+            return null;
+        }
+    }
+
     public Event toEvent(String json) {
         try {
             return mapper.readValue(json, Event.class);
@@ -26,4 +46,36 @@ public class JsonUtil {
             return null;
         }
     }
+
+    /**
+     * Streams the top-level fields of an event until its routing fields are all seen, skipping the order and history
+     * without mapping them. Returns null when the payload is not an event with a source and status.
+     */
+    public EventRouting toEventRouting(byte[] json) {
+        try (var parser = mapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String id = null, transactionId = null, orderId = null, source = null, status = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME
+                    && (id == null || transactionId == null || orderId == null || source == null || status == null)) {
+                var field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "transactionId" -> transactionId = parser.getValueAsString();
+                    case "orderId" -> orderId = parser.getValueAsString();
+                    case "source" -> source = parser.getValueAsString();
+                    case "status" -> status = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (source == null || status == null) {
+                return null;
+            }
+            return new EventRouting(id, transactionId, orderId, EEventSource.valueOf(source), ESagaStatus.valueOf(status));
+        } catch (Exception e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.admission;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * In ownership mode start-saga and the replies share one container. The admission limit must hold back new sagas
+ * while the replies of the admitted ones keep flowing, otherwise the in-flight count could never drop again.
+ */
+@EmbeddedKafka(partitions = SagaAdmissionControlOwnershipTest.PARTITIONS)
+class SagaAdmissionControlOwnershipTest {
+
+    static final int PARTITIONS = 3;
+    private static final int LIMIT = 2;
+    private static final int ORDERS = 8;
+    private static final Duration WAIT = Duration.ofSeconds(120);
+    private static final Duration SETTLE = Duration.ofSeconds(3);
+    private static final Map<ETopics, EEventSource> PARTICIPANTS = Map.of(
+            ETopics.PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_SERVICE,
+            ETopics.PAYMENT_SUCCESS, PAYMENT_SERVICE,
+            ETopics.INVENTORY_SUCCESS, INVENTORY_SERVICE
+    );
+
+    @TempDir
+    Path stateDir;
+
+    private final EventCodec eventCodec = new EventCodec(
+            new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build()), ECodecFormat.JSON);
+    private final Set<String> finished = ConcurrentHashMap.newKeySet();
+    private ConfigurableApplicationContext orchestrator;
+
+    @AfterEach
+    void tearDown() {
+        if (orchestrator != null) {
+            orchestrator.close();
+        }
+    }
+
+    @Test
+    void admissionLimitHoldsBackStartSagaWhileRepliesFlow(EmbeddedKafkaBroker broker) throws Exception {
+        orchestrator = new SpringApplicationBuilder(OrchestratorServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=earliest",
+                        "--spring.kafka.listener.concurrency=1",
+                        "--saga.ownership.enabled=true",
+                        "--saga.state.dir=" + stateDir,
+                        "--saga.admission.enabled=true",
+                        "--saga.admission.adaptive=false",
+                        "--saga.admission.check-ms=100",
+                        "--saga.admission.max-poll-records=1",
+                        "--saga.admission.limit.initial=" + LIMIT,
+                        "--saga.admission.limit.min=1"
+                );
+        var stateStore = orchestrator.getBean(SagaStateStore.class);
+
+        try (var producer = this.producer(broker); var consumer = this.consumer(broker)) {
+            var topics = new ArrayList<>(PARTICIPANTS.keySet().stream().map(ETopics::getTopic).toList());
+            topics.add(ETopics.NOTIFY_ENDING.getTopic());
+            consumer.subscribe(topics);
+            IntStream.range(0, ORDERS).forEach(order -> this.send(producer, ETopics.START_SAGA, this.startEvent("order-" + order)));
+
+            var held = new ArrayList<Event>();
+            var settleUntil = System.nanoTime() + SETTLE.toNanos();
+            while (System.nanoTime() < settleUntil || held.size() < LIMIT) {
+                consumer.poll(Duration.ofMillis(100)).forEach(record -> held.add(eventCodec.decode(record.value())));
+                assertThat(stateStore.size()).isLessThanOrEqualTo(LIMIT);
+            }
+            assertThat(held).hasSize(LIMIT);
+
+            held.forEach(event -> this.reply(producer, event, ETopics.PRODUCT_VALIDATION_SUCCESS));
+            var deadline = System.nanoTime() + WAIT.toNanos();
+            while (finished.size() < ORDERS) {
+                assertThat(System.nanoTime()).as("sagas not finished within %s", WAIT).isLessThan(deadline);
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    var topic = ETopics.valueOf(record.topic().toUpperCase().replace('-', '_'));
+                    if (ETopics.NOTIFY_ENDING.equals(topic)) {
+                        finished.add(record.key());
+                    } else {
+                        this.reply(producer, eventCodec.decode(record.value()), topic);
+                    }
+                }
+                assertThat(stateStore.size()).isLessThanOrEqualTo(LIMIT);
+            }
+        }
+    }
+
+    private void reply(Producer<String, byte[]> producer, Event event, ETopics topic) {
+        event.setSource(PARTICIPANTS.get(topic));
+        event.setStatus(SUCCESS);
+        this.send(producer, ETopics.BASE_ORCHESTRATOR, event);
+    }
+
+    private void send(Producer<String, byte[]> producer, ETopics topic, Event event) {
+        producer.send(new ProducerRecord<>(topic.getTopic(), event.getOrderId(), eventCodec.encode(event)));
+        producer.flush();
+    }
+
+    private Event startEvent(String orderId) {
+        var transactionId = "tx-" + orderId;
+        return Event
+                .builder()
+                .id(orderId)
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order.builder().id(orderId).transactionId(transactionId).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Producer<String, byte[]> producer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()).createProducer();
+    }
+
+    private Consumer<String, byte[]> consumer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaConsumerFactory<>(KafkaTestUtils.consumerProps("participants", "false", broker),
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.consumer;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.transport.InMemoryBus;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.service.OrchestratorService;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SagaOrchestratorBatchConsumerTest {
+
+    private static final String TOPIC = "payment-success";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock();
+    private final OrchestratorService orchestratorService = mock(OrchestratorService.class);
+    private final SagaOrchestratorProducer producer = new SagaOrchestratorProducer(kafkaTemplate,
+            new StaticListableBeanFactory().getBeanProvider(InMemoryBus.class), new SimpleMeterRegistry(),
+            ContextSnapshotFactory.builder().build(), 100, 1000, 1, 1, 1);
+    private final SagaOrchestratorBatchConsumer consumer =
+            new SagaOrchestratorBatchConsumer(mock(EventCodec.class), orchestratorService, producer);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            byte[] payload = invocation.getArgument(0);
+            producer.sendEvent(new String(payload), payload, TOPIC);
+            return null;
+        }).when(orchestratorService).continueSaga(any(byte[].class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        producer.close();
+    }
+
+    @Test
+    void batchReturnsOnceEverySendWasAcknowledged() {
+        var pending = new CompletableFuture<SendResult<String, byte[]>>();
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(pending);
+        CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(() -> pending.complete(null));
+
+        consumer.consumerOrchestratorEvents(this.payloads("order-1", "order-2"));
+
+        assertThat(pending).isCompleted();
+    }
+
+    @Test
+    void failedSendFailsTheBatchAtItsRecord() {
+        when(kafkaTemplate.send(eq(TOPIC), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(eq(TOPIC), eq("order-2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        assertThatThrownBy(() -> consumer.consumerOrchestratorEvents(this.payloads("order-1", "order-2", "order-3")))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        exception -> assertThat(exception.getIndex()).isEqualTo(1));
+    }
+
+    private List<byte[]> payloads(String... orderIds) {
+        return Arrays.stream(orderIds).map(String::getBytes).toList();
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.producer;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static br.com.microservices.orchestrated.orchestratorservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives whole sagas through an orchestrator with several partitions and several listener threads, and checks that
+ * every event of an order, whichever topic and hop it is on, lands on that order's partition.
+ */
+@EmbeddedKafka(partitions = OrderPartitionAffinityTest.PARTITIONS)
+class OrderPartitionAffinityTest {
+
+    static final int PARTITIONS = 3;
+    private static final int CONCURRENCY = 3;
+    private static final int ORDERS = 30;
+    private static final Duration WAIT = Duration.ofSeconds(120);
+    private static final Map<ETopics, EEventSource> PARTICIPANTS = Map.of(
+            ETopics.PRODUCT_VALIDATION_SUCCESS, PRODUCT_VALIDATION_SERVICE,
+            ETopics.PAYMENT_SUCCESS, PAYMENT_SERVICE,
+            ETopics.INVENTORY_SUCCESS, INVENTORY_SERVICE
+    );
+
+    @TempDir
+    Path stateDir;
+
+    private final EventCodec eventCodec = new EventCodec(
+            new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build()), ECodecFormat.JSON);
+    private final Map<String, Set<Integer>> partitionsByOrder = new ConcurrentHashMap<>();
+    private final Set<String> finished = ConcurrentHashMap.newKeySet();
+    private ConfigurableApplicationContext orchestrator;
+
+    @AfterEach
+    void tearDown() {
+        if (orchestrator != null) {
+            orchestrator.close();
+        }
+    }
+
+    @Test
+    void eventsOfAnOrderStayOnOnePartition(EmbeddedKafkaBroker broker) throws Exception {
+        orchestrator = new SpringApplicationBuilder(OrchestratorServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=earliest",
+                        "--spring.kafka.topic.partitions=" + PARTITIONS,
+                        "--spring.kafka.listener.concurrency=" + CONCURRENCY,
+                        "--saga.state.dir=" + stateDir
+                );
+        var forward = (ConcurrentMessageListenerContainer<?, ?>) orchestrator
+                .getBean(KafkaListenerEndpointRegistry.class).getListenerContainer(FORWARD_LISTENER_ID);
+        assertThat(forward.getConcurrency()).isEqualTo(CONCURRENCY);
+
+        try (var producer = this.producer(broker); var consumer = this.consumer(broker)) {
+            var topics = PARTICIPANTS.keySet().stream().map(ETopics::getTopic).collect(Collectors.toList());
+            topics.add(ETopics.NOTIFY_ENDING.getTopic());
+            consumer.subscribe(topics);
+            IntStream.range(0, ORDERS).forEach(order -> this.send(producer, ETopics.START_SAGA, this.startEvent("order-" + order)));
+
+            var deadline = System.nanoTime() + WAIT.toNanos();
+            while (finished.size() < ORDERS) {
+                assertThat(System.nanoTime()).as("sagas not finished within %s", WAIT).isLessThan(deadline);
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    partitionsByOrder.computeIfAbsent(record.key(), orderId -> ConcurrentHashMap.newKeySet())
+                            .add(record.partition());
+                    var topic = ETopics.valueOf(record.topic().toUpperCase().replace('-', '_'));
+                    var event = eventCodec.decode(record.value());
+                    if (ETopics.NOTIFY_ENDING.equals(topic)) {
+                        assertThat(event.getStatus()).isEqualTo(SUCCESS);
+                        finished.add(record.key());
+                    } else {
+                        event.setSource(PARTICIPANTS.get(topic));
+                        event.setStatus(SUCCESS);
+                        this.send(producer, ETopics.BASE_ORCHESTRATOR, event);
+                    }
+                }
+            }
+        }
+
+        assertThat(partitionsByOrder).hasSize(ORDERS).allSatisfy((orderId, partitions) ->
+                assertThat(partitions).as("partitions of %s", orderId).hasSize(1));
+        assertThat(partitionsByOrder.values().stream().flatMap(Set::stream).distinct()).hasSize(PARTITIONS);
+    }
+
+    private void send(Producer<String, byte[]> producer, ETopics topic, Event event) {
+        producer.send(new ProducerRecord<>(topic.getTopic(), event.getOrderId(), eventCodec.encode(event)));
+    }
+
+    private Event startEvent(String orderId) {
+        var transactionId = "tx-" + orderId;
+        return Event
+                .builder()
+                .id(orderId)
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order.builder().id(orderId).transactionId(transactionId).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private Producer<String, byte[]> producer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()).createProducer();
+    }
+
+    private Consumer<String, byte[]> consumer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaConsumerFactory<>(KafkaTestUtils.consumerProps("participants", "false", broker),
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+    }
+}
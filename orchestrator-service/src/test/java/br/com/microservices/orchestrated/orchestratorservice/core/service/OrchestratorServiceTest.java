@@ -0,0 +1,244 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.service;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.exception.ProducerSendException;
+import br.com.microservices.orchestrated.orchestratorservice.config.transport.InMemoryBus;
+import br.com.microservices.orchestrated.orchestratorservice.core.admission.SagaAdmissionControl;
+import br.com.microservices.orchestrated.orchestratorservice.core.dashboard.SagaDashboard;
+import br.com.microservices.orchestrated.orchestratorservice.core.dedupe.EventDeduplicator;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EHistoryMode;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaType;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.metrics.SagaMetrics;
+import br.com.microservices.orchestrated.orchestratorservice.core.producer.SagaOrchestratorProducer;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.ParallelStageJoin;
+import br.com.microservices.orchestrated.orchestratorservice.core.saga.SagaExecutionController;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaChangelog;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaInstance;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaStateStore;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaTimeout;
+import br.com.microservices.orchestrated.orchestratorservice.core.state.SagaTimeoutScheduler;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.verification.VerificationMode;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrchestratorServiceTest {
+
+    private static final String TRANSACTION_ID = "1700000000000_1b4e28ba";
+    private static final String ORDER_ID = "64429e987a8b646915b3735f";
+
+    @TempDir
+    Path stateDir;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock();
+    private final SagaOrchestratorProducer producer = new SagaOrchestratorProducer(kafkaTemplate,
+            new StaticListableBeanFactory().getBeanProvider(InMemoryBus.class), new SimpleMeterRegistry(),
+            ContextSnapshotFactory.builder().build(), 100, 1000, 1, 1, 1);
+    private final SagaChangelog changelog = mock(SagaChangelog.class);
+    private final JsonUtil jsonUtil = new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build());
+    private final EventCodec eventCodec = new EventCodec(jsonUtil, ECodecFormat.JSON);
+    private final SagaMetrics sagaMetrics = mock(SagaMetrics.class);
+    private SagaStateStore stateStore;
+    private OrchestratorService orchestratorService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        this.boot(ESagaType.ORDER);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        stateStore.close();
+        producer.close();
+    }
+
+    @Test
+    void lateReplyAfterTimeoutIsDropped() {
+        orchestratorService.startSaga(this.event());
+        this.expire();
+
+        var lateSuccess = this.reply(SUCCESS);
+        orchestratorService.continueSaga(eventCodec.encode(lateSuccess));
+        orchestratorService.continueSaga(this.reply(SUCCESS));
+
+        this.verifySent(ETopics.PRODUCT_VALIDATION_FAIL, times(1));
+        this.verifySent(ETopics.PAYMENT_SUCCESS, never());
+        assertThat(stateStore.find(TRANSACTION_ID)).map(SagaInstance::topic).contains(ETopics.PRODUCT_VALIDATION_FAIL);
+
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(FAIL)));
+
+        this.verifySent(ETopics.FINISH_FAIL, times(1));
+        this.verifySent(ETopics.FINISH_SUCCESS, never());
+    }
+
+    @Test
+    void replyWhileTimeoutIsBeingHandledIsDropped() {
+        orchestratorService.startSaga(this.event());
+        var instance = stateStore.find(TRANSACTION_ID).orElseThrow();
+        stateStore.claimTimeout(new SagaTimeout(TRANSACTION_ID, instance.deadline()));
+
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(SUCCESS)));
+
+        this.verifySent(ETopics.PAYMENT_SUCCESS, never());
+    }
+
+    @Test
+    void replyFromAnotherStepIsDropped() {
+        orchestratorService.startSaga(this.event());
+
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(PAYMENT_SERVICE, SUCCESS)));
+
+        this.verifySent(ETopics.INVENTORY_SUCCESS, never());
+        assertThat(stateStore.find(TRANSACTION_ID)).map(SagaInstance::topic).contains(ETopics.PRODUCT_VALIDATION_SUCCESS);
+    }
+
+    @Test
+    void replyForUntrackedSagaIsDroppedAndCounted() {
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(SUCCESS)));
+
+        this.verifySent(ETopics.PAYMENT_SUCCESS, never());
+        verify(sagaMetrics).untrackedReply(PRODUCT_VALIDATION_SERVICE, SUCCESS);
+    }
+
+    @Test
+    void replyAfterSagaMovedOnIsNotCountedAsUntracked() {
+        orchestratorService.startSaga(this.event());
+        this.expire();
+
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(SUCCESS)));
+
+        verify(sagaMetrics, never()).untrackedReply(any(), any());
+    }
+
+    @Test
+    void redeliveredReplyRepublishesWhatFailedToSend() {
+        orchestratorService.startSaga(this.event());
+        when(kafkaTemplate.send(eq(ETopics.PAYMENT_SUCCESS.getTopic()), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        var reply = eventCodec.encode(this.reply(SUCCESS));
+
+        assertThatThrownBy(() -> orchestratorService.continueSaga(reply)).isInstanceOf(ProducerSendException.class);
+        orchestratorService.continueSaga(reply);
+        orchestratorService.continueSaga(reply);
+
+        this.verifySent(ETopics.PAYMENT_SUCCESS, times(2));
+        assertThat(stateStore.find(TRANSACTION_ID)).map(SagaInstance::topic).contains(ETopics.PAYMENT_SUCCESS);
+    }
+
+    @Test
+    void parallelJoinSurvivesRestart() throws Exception {
+        this.restart(ESagaType.ORDER_PARALLEL);
+        orchestratorService.startSaga(this.event());
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(SUCCESS)));
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(PAYMENT_SERVICE, SUCCESS)));
+
+        this.restart(ESagaType.ORDER_PARALLEL);
+        var instance = stateStore.find(TRANSACTION_ID).orElseThrow();
+        var stage = new SagaExecutionController().findStageBySource(ESagaType.ORDER_PARALLEL, PAYMENT_SERVICE);
+        assertThat(new ParallelStageJoin(stateStore, eventCodec).findMissingBranches(instance, stage.orElseThrow(), false))
+                .containsExactly(INVENTORY_SERVICE);
+
+        orchestratorService.continueSaga(eventCodec.encode(this.reply(INVENTORY_SERVICE, SUCCESS)));
+
+        this.verifySent(ETopics.FINISH_SUCCESS, times(1));
+    }
+
+    private void restart(ESagaType sagaType) throws Exception {
+        stateStore.close();
+        this.boot(sagaType);
+    }
+
+    private void boot(ESagaType sagaType) throws Exception {
+        stateStore = new SagaStateStore(mock(SagaTimeoutScheduler.class), changelog);
+        ReflectionTestUtils.setField(stateStore, "directory", stateDir.toString());
+        ReflectionTestUtils.setField(stateStore, "logSizeMb", 1);
+        ReflectionTestUtils.setField(stateStore, "snapshotIntervalMs", 60000L);
+        stateStore.recover();
+
+        orchestratorService = new OrchestratorService(
+                new SagaExecutionController(),
+                new ParallelStageJoin(stateStore, eventCodec),
+                producer,
+                eventCodec,
+                jsonUtil,
+                stateStore,
+                sagaMetrics,
+                mock(SagaDashboard.class),
+                new EventDeduplicator(true, 1000, 60000, false, 0.01, new SimpleMeterRegistry(), producer),
+                mock(SagaAdmissionControl.class)
+        );
+        ReflectionTestUtils.setField(orchestratorService, "sagaType", sagaType);
+        ReflectionTestUtils.setField(orchestratorService, "stepTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(orchestratorService, "historyMode", EHistoryMode.FULL);
+    }
+
+    private void verifySent(ETopics topic, VerificationMode mode) {
+        verify(kafkaTemplate, mode).send(eq(topic.getTopic()), eq(ORDER_ID), any());
+    }
+
+    private void expire() {
+        var instance = stateStore.find(TRANSACTION_ID).orElseThrow();
+        var claimed = stateStore.claimTimeout(new SagaTimeout(TRANSACTION_ID, instance.deadline()));
+        orchestratorService.timeoutSaga(claimed.orElseThrow());
+    }
+
+    private Event reply(ESagaStatus status) {
+        return this.reply(PRODUCT_VALIDATION_SERVICE, status);
+    }
+
+    private Event reply(EEventSource source, ESagaStatus status) {
+        var reply = this.event();
+        reply.setSource(source);
+        reply.setStatus(status);
+        return reply;
+    }
+
+    private Event event() {
+        return Event
+                .builder()
+                .id("64429e9a7a8b646915b37360")
+                .transactionId(TRANSACTION_ID)
+                .orderId(ORDER_ID)
+                .payload(Order.builder().id(ORDER_ID).transactionId(TRANSACTION_ID).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,266 @@
+package br.com.microservices.orchestrated.orchestratorservice.core.state;
+
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Event;
+import br.com.microservices.orchestrated.orchestratorservice.core.dto.Order;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ETopics;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.INVENTORY_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PAYMENT_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.EEventSource.PRODUCT_VALIDATION_SERVICE;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.FAIL;
+import static br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus.SUCCESS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two orchestrators in ownership mode against an embedded broker. The second one joins while every saga is
+ * waiting on the payment step, so part of them must be finished, or timed out, by an instance that never saw them
+ * start.
+ */
+@EmbeddedKafka(partitions = SagaOwnershipRebalanceTest.PARTITIONS)
+class SagaOwnershipRebalanceTest {
+
+    static final int PARTITIONS = 3;
+    private static final int SAGAS_PER_PARTITION = 4;
+    private static final long STEP_TIMEOUT_MS = 30000;
+    private static final Duration WAIT = Duration.ofSeconds(120);
+    private static final Duration DUPLICATE_GRACE = Duration.ofSeconds(3);
+    private static final List<ETopics> PARTICIPANT_TOPICS = List.of(
+            ETopics.PRODUCT_VALIDATION_SUCCESS, ETopics.PRODUCT_VALIDATION_FAIL,
+            ETopics.PAYMENT_SUCCESS, ETopics.PAYMENT_FAIL,
+            ETopics.INVENTORY_SUCCESS, ETopics.INVENTORY_FAIL,
+            ETopics.NOTIFY_ENDING
+    );
+
+    @TempDir
+    Path stateDir;
+
+    private final EventCodec eventCodec = new EventCodec(
+            new JsonUtil(JsonMapper.builder().addModule(new JavaTimeModule()).build()), ECodecFormat.JSON);
+    private final List<ConfigurableApplicationContext> instances = new ArrayList<>();
+    private final Map<String, List<ESagaStatus>> endings = new ConcurrentHashMap<>();
+    private final List<Event> heldPayments = new CopyOnWriteArrayList<>();
+    private final Set<String> silentOrders = ConcurrentHashMap.newKeySet();
+    private volatile boolean releasePayments;
+    private volatile boolean running = true;
+    private Thread participants;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        running = false;
+        if (participants != null) {
+            participants.join(WAIT.toMillis());
+        }
+        instances.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void sagasFinishOnceAndTimeoutsMoveToTheNewOwner(EmbeddedKafkaBroker broker) throws Exception {
+        var orders = this.ordersPerPartition();
+        try (var producer = this.producer(broker)) {
+            var first = this.startInstance(broker, "first");
+            awaitUntil(() -> this.ownedPartitions(first).size() == PARTITIONS);
+            participants = Thread.ofPlatform().name("participants").start(() -> this.runParticipants(broker, producer));
+
+            orders.keySet().forEach(orderId -> this.send(producer, ETopics.START_SAGA, this.startEvent(orderId)));
+            awaitUntil(() -> heldPayments.size() == orders.size());
+
+            var second = this.startInstance(broker, "second");
+            awaitUntil(() -> !this.ownedPartitions(first).isEmpty() && !this.ownedPartitions(second).isEmpty()
+                    && this.ownedPartitions(first).size() + this.ownedPartitions(second).size() == PARTITIONS);
+            var firstStore = first.getBean(SagaStateStore.class);
+            var secondStore = second.getBean(SagaStateStore.class);
+            awaitUntil(() -> firstStore.findAll().size() + secondStore.findAll().size() == orders.size());
+
+            var secondPartitions = this.ownedPartitions(second);
+            orders.forEach((orderId, partition) -> {
+                var owner = secondPartitions.contains(partition) ? secondStore : firstStore;
+                var other = owner == secondStore ? firstStore : secondStore;
+                assertThat(owner.find(transactionIdOf(orderId))).isPresent();
+                assertThat(other.find(transactionIdOf(orderId))).isEmpty();
+            });
+            assertThat(silentOrders).anyMatch(orderId -> secondPartitions.contains(orders.get(orderId)));
+
+            releasePayments = true;
+            awaitUntil(() -> endings.size() == orders.size());
+            Thread.sleep(DUPLICATE_GRACE.toMillis());
+
+            orders.keySet().forEach(orderId -> assertThat(endings.get(transactionIdOf(orderId)))
+                    .as("endings of %s", orderId)
+                    .containsExactly(silentOrders.contains(orderId) ? FAIL : SUCCESS));
+            assertThat(firstStore.findAll()).isEmpty();
+            assertThat(secondStore.findAll()).isEmpty();
+        }
+    }
+
+    /**
+     * Plays the three participants: product validation and inventory always succeed, payment replies are held until
+     * the rebalance is done and the silent orders never get one, so the orchestrator has to time them out.
+     */
+    private void runParticipants(EmbeddedKafkaBroker broker, Producer<String, byte[]> producer) {
+        try (var consumer = this.consumer(broker)) {
+            consumer.subscribe(PARTICIPANT_TOPICS.stream().map(ETopics::getTopic).toList());
+            while (running) {
+                for (var record : consumer.poll(Duration.ofMillis(100))) {
+                    this.handle(producer, record);
+                }
+                if (releasePayments && !heldPayments.isEmpty()) {
+                    var released = new ArrayList<>(heldPayments);
+                    heldPayments.removeAll(released);
+                    released.stream()
+                            .filter(event -> !silentOrders.contains(event.getOrderId()))
+                            .forEach(event -> this.reply(producer, event, PAYMENT_SERVICE, SUCCESS));
+                }
+            }
+        }
+    }
+
+    private void handle(Producer<String, byte[]> producer, ConsumerRecord<String, byte[]> record) {
+        var event = eventCodec.decode(record.value());
+        switch (ETopics.valueOf(record.topic().toUpperCase().replace('-', '_'))) {
+            case PRODUCT_VALIDATION_SUCCESS -> this.reply(producer, event, PRODUCT_VALIDATION_SERVICE, SUCCESS);
+            case PAYMENT_SUCCESS -> heldPayments.add(event);
+            case INVENTORY_SUCCESS -> this.reply(producer, event, INVENTORY_SERVICE, SUCCESS);
+            case PRODUCT_VALIDATION_FAIL -> this.reply(producer, event, PRODUCT_VALIDATION_SERVICE, FAIL);
+            case PAYMENT_FAIL -> this.reply(producer, event, PAYMENT_SERVICE, FAIL);
+            case INVENTORY_FAIL -> this.reply(producer, event, INVENTORY_SERVICE, FAIL);
+            case NOTIFY_ENDING -> endings
+                    .computeIfAbsent(event.getTransactionId(), transactionId -> new CopyOnWriteArrayList<>())
+                    .add(event.getStatus());
+            default -> throw new IllegalStateException("Unexpected topic " + record.topic());
+        }
+    }
+
+    private void reply(Producer<String, byte[]> producer, Event event, EEventSource source, ESagaStatus status) {
+        event.setSource(source);
+        event.setStatus(status);
+        this.send(producer, SUCCESS.equals(status) ? ETopics.BASE_ORCHESTRATOR : ETopics.ORCHESTRATOR_COMPENSATION, event);
+    }
+
+    private void send(Producer<String, byte[]> producer, ETopics topic, Event event) {
+        producer.send(new ProducerRecord<>(topic.getTopic(), event.getOrderId(), eventCodec.encode(event)));
+        producer.flush();
+    }
+
+    private ConfigurableApplicationContext startInstance(EmbeddedKafkaBroker broker, String name) {
+        var context = new SpringApplicationBuilder(OrchestratorServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=earliest",
+                        "--spring.kafka.listener.concurrency=1",
+                        "--saga.ownership.enabled=true",
+                        "--saga.state.dir=" + stateDir.resolve(name),
+                        "--saga.timeout.step-ms=" + STEP_TIMEOUT_MS
+                );
+        instances.add(context);
+        return context;
+    }
+
+    private Set<Integer> ownedPartitions(ConfigurableApplicationContext context) {
+        return context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers().stream()
+                .flatMap(container -> Optional.ofNullable(container.getAssignedPartitions()).stream())
+                .flatMap(Collection::stream)
+                .filter(partition -> ETopics.START_SAGA.getTopic().equals(partition.topic()))
+                .map(partition -> partition.partition())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Picks {@link #SAGAS_PER_PARTITION} orders per partition and leaves every other one without a payment reply, so
+     * each partition has sagas that succeed and sagas that time out, whichever instance ends up owning it.
+     */
+    private Map<String, Integer> ordersPerPartition() {
+        var orders = new HashMap<String, Integer>();
+        var counts = new int[PARTITIONS];
+        for (var sequence = 0; orders.size() < PARTITIONS * SAGAS_PER_PARTITION; sequence++) {
+            var orderId = "order-" + sequence;
+            var partition = Utils.toPositive(Utils.murmur2(orderId.getBytes(StandardCharsets.UTF_8))) % PARTITIONS;
+            if (counts[partition] < SAGAS_PER_PARTITION) {
+                if (counts[partition]++ % 2 == 1) {
+                    silentOrders.add(orderId);
+                }
+                orders.put(orderId, partition);
+            }
+        }
+        return orders;
+    }
+
+    private Event startEvent(String orderId) {
+        var transactionId = transactionIdOf(orderId);
+        return Event
+                .builder()
+                .id(orderId)
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .payload(Order.builder().id(orderId).transactionId(transactionId).products(List.of()).build())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static String transactionIdOf(String orderId) {
+        return "tx-" + orderId;
+    }
+
+    private Producer<String, byte[]> producer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaProducerFactory<>(KafkaTestUtils.producerProps(broker),
+                new StringSerializer(), new ByteArraySerializer()).createProducer();
+    }
+
+    private Consumer<String, byte[]> consumer(EmbeddedKafkaBroker broker) {
+        return new DefaultKafkaConsumerFactory<>(KafkaTestUtils.consumerProps("participants", "false", broker),
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + WAIT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %s", WAIT).isLessThan(deadline);
+            Thread.sleep(100);
+        }
+    }
+}
@@ -13,4 +13,22 @@ public class ExceptionGlobalHandler {
         var details = new ExceptionDetails(HttpStatus.BAD_REQUEST.value(), validationException.getMessage());
         return new ResponseEntity<>(details, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(ProducerBackPressureException.class)
+    public ResponseEntity<?> handleProducerBackPressureException(ProducerBackPressureException exception) {
+        var details = new ExceptionDetails(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+        return new ResponseEntity<>(details, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ProducerSendException.class)
+    public ResponseEntity<?> handleProducerSendException(ProducerSendException exception) {
+        var details = new ExceptionDetails(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+        return new ResponseEntity<>(details, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ConcurrencyLimitException.class)
+    public ResponseEntity<?> handleConcurrencyLimitException(ConcurrencyLimitException exception) {
+        var details = new ExceptionDetails(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+        return new ResponseEntity<>(details, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 }
@@ -0,0 +1,93 @@
+package br.com.microservices.orchestrated.orderservice.config.mongo;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.HistoryDelta;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@code explain()} for the query shape behind every repository lookup once the indexes are created, and reports
+ * any plan that falls back to a collection scan. With {@code fail-on-collscan} the service refuses to start instead.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "spring.data.mongodb.plan-check.enabled", havingValue = "true")
+public class QueryPlanVerifier {
+
+    private static final String COLLSCAN = "COLLSCAN";
+    private static final String PROBE = "plan-check";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean failOnCollscan;
+
+    public QueryPlanVerifier(MongoTemplate mongoTemplate,
+                             @Value("${spring.data.mongodb.plan-check.fail-on-collscan}") boolean failOnCollscan) {
+        this.mongoTemplate = mongoTemplate;
+        this.failOnCollscan = failOnCollscan;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        var now = new Date();
+        var events = mongoTemplate.getCollectionName(Event.class);
+        var deltas = mongoTemplate.getCollectionName(HistoryDelta.class);
+        var scans = new ArrayList<String>();
+        this.check(scans, "event by orderId", events,
+                new Document("orderId", PROBE), new Document("createdAt", -1), 1);
+        this.check(scans, "event by transactionId", events,
+                new Document("transactionId", PROBE), new Document("createdAt", -1), 1);
+        this.check(scans, "event first page", events,
+                new Document(), new Document("createdAt", -1).append("_id", -1), 100);
+        this.check(scans, "event next page", events,
+                new Document("$or", List.of(
+                        new Document("createdAt", new Document("$lt", now)),
+                        new Document("createdAt", now).append("_id", new Document("$lt", PROBE))
+                )), new Document("createdAt", -1).append("_id", -1), 100);
+        this.check(scans, "history deltas by transactionId", deltas,
+                new Document("transactionId", PROBE), new Document("sequence", 1), 0);
+        if (scans.isEmpty()) {
+            log.info("Mongo query plans verified: no repository query scans a whole collection");
+            return;
+        }
+        log.error("Mongo query plans with {}: {}", COLLSCAN, scans);
+        if (failOnCollscan) {
+            throw new IllegalStateException("Repository queries fall back to " + COLLSCAN + ": " + scans);
+        }
+    }
+
+    private void check(List<String> scans, String name, String collection, Document filter, Document sort, int limit) {
+        var plan = mongoTemplate
+                .getCollection(collection)
+                .find(filter)
+                .sort(sort)
+                .limit(limit)
+                .explain();
+        var queryPlanner = plan.get("queryPlanner", Document.class);
+        var winningPlan = queryPlanner == null ? null : queryPlanner.get("winningPlan");
+        if (containsStage(winningPlan, COLLSCAN)) {
+            scans.add(name);
+        }
+        log.debug("Query plan for {}: {}", name, winningPlan);
+    }
+
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Map<?, ?> node) {
+            return stage.equals(node.get("stage")) || node.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (plan instanceof List<?> nodes) {
+            return nodes.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.microservices.orchestrated.orderservice.config.threads;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    @Value("${server.concurrency.max-requests}")
+    private int maxRequests;
+    @Value("${server.concurrency.acquire-timeout-ms}")
+    private long acquireTimeoutMs;
+    @Value("${spring.data.mongodb.pool.max-size}")
+    private int mongoPoolSize;
+    @Value("${spring.data.mongodb.pool.max-wait-ms}")
+    private long mongoMaxWaitMs;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(maxRequests, acquireTimeoutMs)).addPathPatterns("/api/**");
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer() {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(mongoPoolSize)
+                .maxWaitTime(mongoMaxWaitMs, TimeUnit.MILLISECONDS));
+    }
+}
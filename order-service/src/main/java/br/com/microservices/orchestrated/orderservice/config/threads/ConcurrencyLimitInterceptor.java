@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.orderservice.config.threads;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.ConcurrencyLimitException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent requests with a semaphore, so the limit holds whether Tomcat runs on a bounded
+ * platform pool or on one virtual thread per request.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ConcurrencyLimitInterceptor(int maxRequests, long acquireTimeoutMs) {
+        this.permits = new Semaphore(maxRequests);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new ConcurrencyLimitException("Too many concurrent requests, try again later.");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        permits.release();
+    }
+}
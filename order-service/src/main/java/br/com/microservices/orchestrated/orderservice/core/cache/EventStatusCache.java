@@ -0,0 +1,84 @@
+package br.com.microservices.orchestrated.orderservice.core.cache;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of the latest event per orderId and per transactionId, in front of the status lookups clients
+ * poll while their saga runs. Finished sagas are kept for {@code ttl-ms}; sagas still in flight and unknown ids only
+ * for {@code pending-ttl-ms}, so another instance's notify-ending shows up quickly. Concurrent misses on one key share
+ * a single Mongo query.
+ */
+@Component
+public class EventStatusCache {
+
+    private static final String CACHE_NAME = "order.event.status";
+    private static final String ORDER_KEY = "order:";
+    private static final String TRANSACTION_KEY = "transaction:";
+
+    private final Cache<String, Optional<Event>> cache;
+
+    public EventStatusCache(@Value("${saga.status-cache.max-size}") long maxSize,
+                            @Value("${saga.status-cache.ttl-ms}") long ttlMs,
+                            @Value("${saga.status-cache.pending-ttl-ms}") long pendingTtlMs,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine
+                .newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new StatusExpiry(TimeUnit.MILLISECONDS.toNanos(ttlMs), TimeUnit.MILLISECONDS.toNanos(pendingTtlMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge
+                .builder("cache.hit.ratio", cache, monitored -> monitored.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public Optional<Event> findByOrderId(String orderId, Function<String, Optional<Event>> loader) {
+        return cache.get(ORDER_KEY + orderId, key -> loader.apply(orderId));
+    }
+
+    public Optional<Event> findByTransactionId(String transactionId, Function<String, Optional<Event>> loader) {
+        return cache.get(TRANSACTION_KEY + transactionId, key -> loader.apply(transactionId));
+    }
+
+    public void put(Event event) {
+        var value = Optional.of(event);
+        if (event.getOrderId() != null) {
+            cache.put(ORDER_KEY + event.getOrderId(), value);
+        }
+        if (event.getTransactionId() != null) {
+            cache.put(TRANSACTION_KEY + event.getTransactionId(), value);
+        }
+    }
+
+    private record StatusExpiry(long ttlNanos, long pendingTtlNanos) implements Expiry<String, Optional<Event>> {
+
+        @Override
+        public long expireAfterCreate(String key, Optional<Event> value, long currentTime) {
+            return value.map(Event::getStatus).isPresent() ? ttlNanos : pendingTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Optional<Event> value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Optional<Event> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.microservices.orchestrated.orderservice.core.consumer;
 
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
+import br.com.microservices.orchestrated.orderservice.core.utils.EventCodec;
 import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,16 +12,29 @@ import org.springframework.stereotype.Component;
 @Component
 @AllArgsConstructor
 public class EventConsumer {
+    private final EventCodec eventCodec;
     private final JsonUtil jsonUtil;
     private final EventService eventService;
 
     @KafkaListener(
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.notify-ending}"
+            topics = "${spring.kafka.topic.notify-ending}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.notify-ending:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerNotifyEndingEvent(String payload) {
-        log.info("Receiving ending notification event {} from notify-ending topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerNotifyEndingEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving ending notification event {} from notify-ending topic", event);
         eventService.notifyEnding(event);
     }
+
+    @KafkaListener(
+            groupId = "${spring.kafka.consumer.group-id}",
+            topics = "${spring.kafka.topic.saga-history}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.saga-history:${spring.kafka.listener.concurrency}}"
+    )
+    public void consumerSagaHistoryEvent(byte[] payload) {
+        var delta = jsonUtil.toHistoryDelta(payload);
+        log.info("Receiving history delta {} from saga-history topic", delta);
+        eventService.appendHistory(delta);
+    }
 }
@@ -2,29 +2,59 @@ package br.com.microservices.orchestrated.orderservice.core.controller;
 
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPageFilters;
 import br.com.microservices.orchestrated.orderservice.core.service.EventService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.xml.bind.ValidationException;
 import lombok.AllArgsConstructor;
-import org.springframework.data.mongodb.repository.Query;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api/v1/event")
 public class EventController {
+    private static final int NEWLINE = '\n';
+
     private final EventService service;
+    private final ObjectMapper objectMapper;
 
     @GetMapping()
     public Event findByFilters(EventFilters filters) throws ValidationException {
         return service.findByFilters(filters);
     }
 
+    /**
+     * Newest events first, one page at a time. Pass the returned {@code nextCursor} back as {@code cursor} to get the
+     * following page; it is null on the last one.
+     */
     @GetMapping("all")
-    public List<Event> findAll()  {
-        return service.findAll();
+    public EventPage findAll(EventPageFilters filters) {
+        return service.findPage(filters);
+    }
+
+    /**
+     * Every event, newest first, as newline-delimited JSON read from a Mongo cursor.
+     */
+    @GetMapping(value = "all/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAll() {
+        return output -> service.streamAll(event -> this.writeLine(output, event));
+    }
+
+    private void writeLine(OutputStream output, Event event) {
+        try {
+            output.write(objectMapper.writeValueAsBytes(event));
+            output.write(NEWLINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
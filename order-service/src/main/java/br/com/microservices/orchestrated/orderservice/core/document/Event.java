@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "event")
+@CompoundIndex(name = "order_id_created_at", def = "{'orderId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "transaction_id_created_at", def = "{'transactionId': 1, 'createdAt': -1}")
+@CompoundIndex(name = "created_at_id", def = "{'createdAt': -1, '_id': -1}")
 public class Event {
     @Id
     private String id;
@@ -24,5 +28,6 @@ public class Event {
     private String source;
     private String status;
     private List<History> eventHistory;
+    private long historySequence;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,27 @@
+package br.com.microservices.orchestrated.orderservice.core.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "history_delta")
+@CompoundIndex(name = "transaction_id_sequence", def = "{'transactionId': 1, 'sequence': 1}")
+public class HistoryDelta {
+
+    @Id
+    private String id;
+    private String transactionId;
+    private String orderId;
+    private long sequence;
+    private List<History> entries;
+}
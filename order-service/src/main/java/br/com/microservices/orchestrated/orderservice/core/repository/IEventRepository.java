@@ -1,13 +1,15 @@
 package br.com.microservices.orchestrated.orderservice.core.repository;
 
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface IEventRepository extends MongoRepository<Event, String> {
-    List<Event> findAllByOrderByCreatedAtDesc();
+public interface IEventRepository extends MongoRepository<Event, String>, IEventRepositoryCustom {
+    @Meta(cursorBatchSize = 500)
+    Stream<Event> streamAllByOrderByCreatedAtDescIdDesc();
 
     Optional<Event> findTop1ByOrderIdOrderByCreatedAtDesc(String orderId);
     Optional<Event> findTop1ByTransactionIdOrderByCreatedAtDesc(String transactionId);
@@ -0,0 +1,15 @@
+package br.com.microservices.orchestrated.orderservice.core.repository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IEventRepositoryCustom {
+
+    /**
+     * Newest events first, ordered by (createdAt, id) and starting strictly after the given key, or from the newest
+     * event when the key is null.
+     */
+    List<Event> findPageAfter(LocalDateTime createdAt, String id, int limit);
+}
@@ -0,0 +1,34 @@
+package br.com.microservices.orchestrated.orderservice.core.repository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import lombok.AllArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@AllArgsConstructor
+public class IEventRepositoryCustomImpl implements IEventRepositoryCustom {
+
+    private static final String CREATED_AT = "createdAt";
+    private static final String ID = "id";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Event> findPageAfter(LocalDateTime createdAt, String id, int limit) {
+        var query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, CREATED_AT, ID))
+                .limit(limit);
+        if (createdAt != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    Criteria.where(CREATED_AT).lt(createdAt),
+                    Criteria.where(CREATED_AT).is(createdAt).and(ID).lt(id)
+            ));
+        }
+        return mongoTemplate.find(query, Event.class);
+    }
+}
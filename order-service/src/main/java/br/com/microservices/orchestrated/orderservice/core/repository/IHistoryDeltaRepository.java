@@ -0,0 +1,10 @@
+package br.com.microservices.orchestrated.orderservice.core.repository;
+
+import br.com.microservices.orchestrated.orderservice.core.document.HistoryDelta;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface IHistoryDeltaRepository extends MongoRepository<HistoryDelta, String> {
+    List<HistoryDelta> findAllByTransactionIdOrderBySequenceAsc(String transactionId);
+}
@@ -1,16 +1,26 @@
 package br.com.microservices.orchestrated.orderservice.core.service;
 
 import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.cache.EventStatusCache;
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.History;
+import br.com.microservices.orchestrated.orderservice.core.document.HistoryDelta;
 import br.com.microservices.orchestrated.orderservice.core.dto.EventFilters;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPage;
+import br.com.microservices.orchestrated.orderservice.core.dto.EventPageFilters;
 import br.com.microservices.orchestrated.orderservice.core.repository.IEventRepository;
+import br.com.microservices.orchestrated.orderservice.core.repository.IHistoryDeltaRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 @Slf4j
@@ -18,31 +28,125 @@ import java.util.List;
 @AllArgsConstructor
 public class EventService {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final String CURSOR_SEPARATOR = "|";
+
     private final IEventRepository repository;
+    private final IHistoryDeltaRepository historyDeltaRepository;
+    private final EventStatusCache statusCache;
 
     public void notifyEnding(Event event) {
         event.setOrderId(event.getOrderId());
         event.setCreatedAt(LocalDateTime.now());
+        if (event.getHistorySequence() > 0) {
+            this.saveHistoryDelta(event.getTransactionId(), event.getOrderId(), event.getHistorySequence(), event.getEventHistory());
+            this.rebuildHistory(event);
+        }
         save(event);
         log.info("Order {} with saga notified! TransactionId: {}", event.getOrderId(), event.getTransactionId());
     }
+
+    public void appendHistory(HistoryDelta delta) {
+        if (delta == null) {
+            log.error("Error: received an invalid history delta");
+            return;
+        }
+        this.saveHistoryDelta(delta.getTransactionId(), delta.getOrderId(), delta.getSequence(), delta.getEntries());
+        repository
+                .findTop1ByTransactionIdOrderByCreatedAtDesc(delta.getTransactionId())
+                .filter(event -> event.getStatus() != null)
+                .ifPresent(event -> {
+                    this.rebuildHistory(event);
+                    save(event);
+                });
+    }
+
+    private void saveHistoryDelta(String transactionId, String orderId, long sequence, List<History> entries) {
+        historyDeltaRepository.save(HistoryDelta
+                .builder()
+                .id(String.format("%s:%d", transactionId, sequence))
+                .transactionId(transactionId)
+                .orderId(orderId)
+                .sequence(sequence)
+                .entries(ObjectUtils.isEmpty(entries) ? List.of() : entries)
+                .build());
+    }
+
+    private void rebuildHistory(Event event) {
+        var history = new ArrayList<History>();
+        historyDeltaRepository
+                .findAllByTransactionIdOrderBySequenceAsc(event.getTransactionId())
+                .forEach(delta -> history.addAll(delta.getEntries()));
+        event.setEventHistory(history);
+    }
     public Event save(Event event) {
-        return repository.save(event);
+        var saved = repository.save(event);
+        statusCache.put(saved);
+        return saved;
     }
 
-    public List<Event> findAll() {
-        return repository.findAllByOrderByCreatedAtDesc();
+    public EventPage findPage(EventPageFilters filters) {
+        var limit = this.pageSize(filters.getLimit());
+        List<Event> content;
+        if (ObjectUtils.isEmpty(filters.getCursor())) {
+            content = repository.findPageAfter(null, null, limit);
+        } else {
+            var cursor = this.decodeCursor(filters.getCursor());
+            content = repository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), limit);
+        }
+        var last = content.isEmpty() ? null : content.get(content.size() - 1);
+        return EventPage
+                .builder()
+                .content(content)
+                .nextCursor(content.size() < limit || last.getCreatedAt() == null ? null : this.encodeCursor(last))
+                .build();
+    }
+
+    public void streamAll(Consumer<Event> consumer) {
+        try (var events = repository.streamAllByOrderByCreatedAtDescIdDesc()) {
+            events.forEach(consumer);
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        return limit;
+    }
+
+    private String encodeCursor(Event event) {
+        var key = event.getCreatedAt() + CURSOR_SEPARATOR + event.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Event decodeCursor(String cursor) {
+        try {
+            var key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = key.indexOf(CURSOR_SEPARATOR);
+            return Event
+                    .builder()
+                    .createdAt(LocalDateTime.parse(key.substring(0, separator)))
+                    .id(key.substring(separator + 1))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor.");
+        }
     }
 
     private Event findByOrderId(String orderId) {
-        return repository
-                .findTop1ByOrderIdOrderByCreatedAtDesc(orderId)
+        return statusCache
+                .findByOrderId(orderId, repository::findTop1ByOrderIdOrderByCreatedAtDesc)
                 .orElseThrow(() -> new ValidationException("Event not found OrderId."));
     }
 
     private Event findByTransactionId(String transactionId) {
-        return repository
-                .findTop1ByTransactionIdOrderByCreatedAtDesc(transactionId)
+        return statusCache
+                .findByTransactionId(transactionId, repository::findTop1ByTransactionIdOrderByCreatedAtDesc)
                 .orElseThrow(() -> new ValidationException("Event not found TransactionId."));
     }
 
@@ -6,7 +6,7 @@ import br.com.microservices.orchestrated.orderservice.core.document.Order;
 import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequestDTO;
 import br.com.microservices.orchestrated.orderservice.core.producer.SagaProducer;
 import br.com.microservices.orchestrated.orderservice.core.repository.IOrderRepository;
-import br.com.microservices.orchestrated.orderservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orderservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +20,7 @@ public class OrderService {
     private static final String TRANSACTION_ID_PATTERN = "%s_%s";
 
     private final IOrderRepository repository;
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final EventService eventService;
     private final SagaProducer producer;
 
@@ -38,7 +38,7 @@ public class OrderService {
 
         repository.save(order);
         Event event = this.createPayload(order);
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(order.getId(), eventCodec.encode(event));
         return order;
     }
 
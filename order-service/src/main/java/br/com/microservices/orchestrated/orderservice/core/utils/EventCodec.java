@@ -0,0 +1,473 @@
+package br.com.microservices.orchestrated.orderservice.core.utils;
+
+import br.com.microservices.orchestrated.orderservice.config.exception.ValidationException;
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.History;
+import br.com.microservices.orchestrated.orderservice.core.document.Order;
+import br.com.microservices.orchestrated.orderservice.core.document.OrderProducts;
+import br.com.microservices.orchestrated.orderservice.core.document.Product;
+import br.com.microservices.orchestrated.orderservice.core.enums.ECodecFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Wire codec for saga events. Producers write the format selected by {@code saga.codec}, consumers detect it from
+ * the first byte, so JSON and binary producers can coexist while the services are rolled over one by one.
+ *
+ * <p>Binary layout, version 2: {@code MAGIC VERSION event}. Each object starts with a presence bitmask of its nullable
+ * fields; strings are a varint length followed by UTF-8; sources and statuses are indexes into {@link #SYMBOLS}, or 0
+ * followed by the literal string; timestamps are zig-zag epoch seconds plus nanos; amounts are 8-byte doubles. Version 2
+ * appends the event's history sequence as a varint; version 1 payloads are still read with a sequence of 0.
+ */
+@Slf4j
+@Component
+public class EventCodec {
+
+    public static final byte MAGIC = (byte) 0xB5;
+    public static final byte VERSION = 2;
+
+    private static final List<String> SYMBOLS = List.of(
+            "ORCHESTRATOR",
+            "PRODUCT_VALIDATION_SERVICE",
+            "PAYMENT_SERVICE",
+            "INVENTORY_SERVICE",
+            "SUCCESS",
+            "ROLLBACK_PENDING",
+            "FAIL"
+    );
+    private static final Map<String, Integer> SYMBOL_CODES = new HashMap<>();
+
+    static {
+        for (var index = 0; index < SYMBOLS.size(); index++) {
+            SYMBOL_CODES.put(SYMBOLS.get(index), index + 1);
+        }
+    }
+
+    private final JsonUtil jsonUtil;
+    private final ECodecFormat format;
+
+    public EventCodec(JsonUtil jsonUtil, @Value("${saga.codec}") ECodecFormat format) {
+        this.jsonUtil = jsonUtil;
+        this.format = format;
+    }
+
+    public byte[] encode(Event event) {
+        return format == ECodecFormat.BINARY ? toBinary(event) : jsonUtil.toJsonBytes(event);
+    }
+
+    public Event decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+        if (payload[0] != MAGIC) {
+            return jsonUtil.toEvent(payload);
+        }
+        try {
+            return fromBinary(payload);
+        } catch (RuntimeException e) {
+            log.error("Error: trying to decode binary event of {} bytes", payload.length, e);
+            return null;
+        }
+    }
+
+    public static byte[] toBinary(Event event) {
+        var out = Writer.acquire();
+        try {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeEvent(out, event);
+            return out.toByteArray();
+        } finally {
+            out.release();
+        }
+    }
+
+    public static Event fromBinary(byte[] payload) {
+        var in = new Reader(payload);
+        if (in.readByte() != MAGIC) {
+            throw new ValidationException("Payload is not a binary event");
+        }
+        var version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new ValidationException("Unsupported binary event version " + version);
+        }
+        return readEvent(in, version);
+    }
+
+    private static void writeEvent(Writer out, Event event) {
+        out.writeByte(presence(event.getId(), event.getTransactionId(), event.getOrderId(), event.getPayload(),
+                event.getSource(), event.getStatus(), event.getEventHistory(), event.getCreatedAt()));
+        if (event.getId() != null) {
+            out.writeString(event.getId());
+        }
+        if (event.getTransactionId() != null) {
+            out.writeString(event.getTransactionId());
+        }
+        if (event.getOrderId() != null) {
+            out.writeString(event.getOrderId());
+        }
+        if (event.getPayload() != null) {
+            writeOrder(out, event.getPayload());
+        }
+        if (event.getSource() != null) {
+            out.writeSymbol(event.getSource());
+        }
+        if (event.getStatus() != null) {
+            out.writeSymbol(event.getStatus());
+        }
+        if (event.getEventHistory() != null) {
+            out.writeVarLong(event.getEventHistory().size());
+            event.getEventHistory().forEach(history -> writeHistory(out, history));
+        }
+        if (event.getCreatedAt() != null) {
+            out.writeDateTime(event.getCreatedAt());
+        }
+        out.writeVarLong(event.getHistorySequence());
+    }
+
+    private static Event readEvent(Reader in, int version) {
+        var presence = in.readByte();
+        var event = new Event();
+        if ((presence & 1) != 0) {
+            event.setId(in.readString());
+        }
+        if ((presence & 1 << 1) != 0) {
+            event.setTransactionId(in.readString());
+        }
+        if ((presence & 1 << 2) != 0) {
+            event.setOrderId(in.readString());
+        }
+        if ((presence & 1 << 3) != 0) {
+            event.setPayload(readOrder(in));
+        }
+        if ((presence & 1 << 4) != 0) {
+            event.setSource(in.readSymbol());
+        }
+        if ((presence & 1 << 5) != 0) {
+            event.setStatus(in.readSymbol());
+        }
+        if ((presence & 1 << 6) != 0) {
+            var size = in.readLength();
+            var history = new ArrayList<History>(size);
+            for (var index = 0; index < size; index++) {
+                history.add(readHistory(in));
+            }
+            event.setEventHistory(history);
+        }
+        if ((presence & 1 << 7) != 0) {
+            event.setCreatedAt(in.readDateTime());
+        }
+        if (version >= 2) {
+            event.setHistorySequence(in.readVarLong());
+        }
+        return event;
+    }
+
+    private static void writeOrder(Writer out, Order order) {
+        out.writeByte(presence(order.getId(), order.getProducts(), order.getCreatedAt(), order.getTransactionId()));
+        if (order.getId() != null) {
+            out.writeString(order.getId());
+        }
+        if (order.getProducts() != null) {
+            out.writeVarLong(order.getProducts().size());
+            order.getProducts().forEach(products -> writeOrderProducts(out, products));
+        }
+        if (order.getCreatedAt() != null) {
+            out.writeDateTime(order.getCreatedAt());
+        }
+        if (order.getTransactionId() != null) {
+            out.writeString(order.getTransactionId());
+        }
+        out.writeDouble(order.getTotalAmount());
+        out.writeZigZag(order.getTotalItems());
+    }
+
+    private static Order readOrder(Reader in) {
+        var presence = in.readByte();
+        var order = new Order();
+        if ((presence & 1) != 0) {
+            order.setId(in.readString());
+        }
+        if ((presence & 1 << 1) != 0) {
+            var size = in.readLength();
+            var products = new ArrayList<OrderProducts>(size);
+            for (var index = 0; index < size; index++) {
+                products.add(readOrderProducts(in));
+            }
+            order.setProducts(products);
+        }
+        if ((presence & 1 << 2) != 0) {
+            order.setCreatedAt(in.readDateTime());
+        }
+        if ((presence & 1 << 3) != 0) {
+            order.setTransactionId(in.readString());
+        }
+        order.setTotalAmount(in.readDouble());
+        order.setTotalItems((int) in.readZigZag());
+        return order;
+    }
+
+    private static void writeOrderProducts(Writer out, OrderProducts orderProducts) {
+        out.writeByte(presence(orderProducts.getProduct()));
+        if (orderProducts.getProduct() != null) {
+            var product = orderProducts.getProduct();
+            out.writeByte(presence(product.getCode()));
+            if (product.getCode() != null) {
+                out.writeString(product.getCode());
+            }
+            out.writeDouble(product.getUnitValues());
+        }
+        out.writeZigZag(orderProducts.getQuantity());
+    }
+
+    private static OrderProducts readOrderProducts(Reader in) {
+        var orderProducts = new OrderProducts();
+        if ((in.readByte() & 1) != 0) {
+            var product = new Product();
+            if ((in.readByte() & 1) != 0) {
+                product.setCode(in.readString());
+            }
+            product.setUnitValues(in.readDouble());
+            orderProducts.setProduct(product);
+        }
+        orderProducts.setQuantity((int) in.readZigZag());
+        return orderProducts;
+    }
+
+    private static void writeHistory(Writer out, History history) {
+        out.writeByte(presence(history.getSource(), history.getStatus(), history.getMessage(), history.getCreatedAt()));
+        if (history.getSource() != null) {
+            out.writeSymbol(history.getSource());
+        }
+        if (history.getStatus() != null) {
+            out.writeSymbol(history.getStatus());
+        }
+        if (history.getMessage() != null) {
+            out.writeString(history.getMessage());
+        }
+        if (history.getCreatedAt() != null) {
+            out.writeDateTime(history.getCreatedAt());
+        }
+    }
+
+    private static History readHistory(Reader in) {
+        var presence = in.readByte();
+        var history = new History();
+        if ((presence & 1) != 0) {
+            history.setSource(in.readSymbol());
+        }
+        if ((presence & 1 << 1) != 0) {
+            history.setStatus(in.readSymbol());
+        }
+        if ((presence & 1 << 2) != 0) {
+            history.setMessage(in.readString());
+        }
+        if ((presence & 1 << 3) != 0) {
+            history.setCreatedAt(in.readDateTime());
+        }
+        return history;
+    }
+
+    private static int presence(Object... fields) {
+        var presence = 0;
+        for (var index = 0; index < fields.length; index++) {
+            if (fields[index] != null) {
+                presence |= 1 << index;
+            }
+        }
+        return presence;
+    }
+
+    /**
+     * Encodes into a scratch buffer borrowed from a small shared pool, so only the exact-size result is allocated per
+     * event. The pool is striped by thread id rather than thread-local, since listeners may run on virtual threads.
+     */
+    private static final class Writer {
+
+        private static final int INITIAL_CAPACITY = 512;
+        private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+        private static final int POOL_SIZE = 32;
+        private static final AtomicReferenceArray<byte[]> POOL = new AtomicReferenceArray<>(POOL_SIZE);
+
+        private final int slot;
+        private byte[] buffer;
+        private int size;
+
+        private Writer(int slot, byte[] buffer) {
+            this.slot = slot;
+            this.buffer = buffer;
+        }
+
+        private static Writer acquire() {
+            var slot = (int) (Thread.currentThread().threadId() % POOL_SIZE);
+            var buffer = POOL.getAndSet(slot, null);
+            return new Writer(slot, buffer != null ? buffer : new byte[INITIAL_CAPACITY]);
+        }
+
+        private void release() {
+            if (buffer.length <= MAX_POOLED_CAPACITY) {
+                POOL.lazySet(slot, buffer);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeDouble(double value) {
+            ensure(8);
+            var bits = Double.doubleToRawLongBits(value);
+            for (var shift = 56; shift >= 0; shift -= 8) {
+                buffer[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        private void writeString(String value) {
+            if (isAscii(value)) {
+                var length = value.length();
+                writeVarLong(length);
+                ensure(length);
+                for (var index = 0; index < length; index++) {
+                    buffer[size++] = (byte) value.charAt(index);
+                }
+                return;
+            }
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeSymbol(String value) {
+            var code = SYMBOL_CODES.get(value);
+            if (code != null) {
+                writeVarLong(code);
+                return;
+            }
+            writeVarLong(0);
+            writeString(value);
+        }
+
+        private void writeDateTime(LocalDateTime value) {
+            writeZigZag(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarLong(value.getNano());
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private static boolean isAscii(String value) {
+            for (var index = 0; index < value.length(); index++) {
+                if (value.charAt(index) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+
+        private Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private byte readByte() {
+            if (position >= buffer.length) {
+                throw new ValidationException("Binary event is truncated");
+            }
+            return buffer[position++];
+        }
+
+        private long readVarLong() {
+            var value = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                var current = readByte();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new ValidationException("Malformed varint in binary event");
+        }
+
+        private long readZigZag() {
+            var value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private int readLength() {
+            var length = readVarLong();
+            if (length < 0 || length > buffer.length - position) {
+                throw new ValidationException("Invalid length " + length + " in binary event");
+            }
+            return (int) length;
+        }
+
+        private double readDouble() {
+            var bits = 0L;
+            for (var index = 0; index < 8; index++) {
+                bits = (bits << 8) | (readByte() & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private String readString() {
+            var length = readLength();
+            var value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private String readSymbol() {
+            var code = (int) readVarLong();
+            if (code == 0) {
+                return readString();
+            }
+            if (code > SYMBOLS.size()) {
+                throw new ValidationException("Unknown symbol " + code + " in binary event");
+            }
+            return SYMBOLS.get(code - 1);
+        }
+
+        private LocalDateTime readDateTime() {
+            return LocalDateTime.ofEpochSecond(readZigZag(), (int) readVarLong(), ZoneOffset.UTC);
+        }
+    }
+}
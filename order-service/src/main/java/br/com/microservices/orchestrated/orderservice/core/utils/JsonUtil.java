@@ -1,6 +1,7 @@
 package br.com.microservices.orchestrated.orderservice.core.utils;
 
 import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import br.com.microservices.orchestrated.orderservice.core.document.HistoryDelta;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -18,6 +19,22 @@ public class JsonUtil {
         }
     }
 
+    public byte[] toJsonBytes(Object object) {
+        try {
+            return mapper.writeValueAsBytes(object);
+        } catch (Exception e) {
+            return new byte[0];
+        }
+    }
+
+    public Event toEvent(byte[] json) {
+        try {
+            return mapper.readValue(json, Event.class);
+        } catch(Exception e) {
+            return null;
+        }
+    }
+
     public Event toEvent(String json) {
         try {
             return mapper.readValue(json, Event.class);
@@ -25,4 +42,12 @@ public class JsonUtil {
             return null;
         }
     }
+
+    public HistoryDelta toHistoryDelta(byte[] json) {
+        try {
+            return mapper.readValue(json, HistoryDelta.class);
+        } catch(Exception e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package br.com.microservices.orchestrated.orderservice.config.mongo;
+
+import br.com.microservices.orchestrated.orderservice.core.document.Event;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Boots the service against a real Mongo with the plan check on and {@code fail-on-collscan}, so a repository query
+ * that loses its index fails the build instead of a production startup. Skipped where Docker is not available.
+ */
+@EmbeddedKafka
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.data.mongodb.plan-check.enabled=true",
+        "spring.data.mongodb.plan-check.fail-on-collscan=true"
+})
+class QueryPlanVerifierTest {
+
+    @Container
+    @ServiceConnection
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        assertThatCode(queryPlanVerifier::verify).doesNotThrowAnyException();
+    }
+
+    @Test
+    void missingIndexFailsVerification() {
+        var indexOps = mongoTemplate.indexOps(Event.class);
+        indexOps.dropAllIndexes();
+        try {
+            assertThatThrownBy(queryPlanVerifier::verify)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("COLLSCAN")
+                    .hasMessageContaining("event by orderId");
+        } finally {
+            new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(Event.class).forEach(indexOps::ensureIndex);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.microservices.orchestrated.paymentservice.config.threads;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a burst of saga steps that each wait on the broker and then hold a pooled JDBC connection,
+ * comparing a bounded platform pool with one virtual thread per step. Run with {@code -prof gc} for allocation
+ * figures; the teardown prints peak live threads and used heap for each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ThreadModelBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threadModel;
+    @Param({"200"})
+    private int platformThreads;
+    @Param({"10"})
+    private int connectionPoolSize;
+    @Param({"2"})
+    private long roundTripMs;
+
+    private ExecutorService executor;
+    private Semaphore connectionPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "VIRTUAL".equals(threadModel)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+        connectionPool = new Semaphore(connectionPoolSize);
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        var peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+        var usedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%nmodel=%s peakThreads=%d usedHeap=%d KB%n", threadModel, peakThreads, usedHeap / 1024);
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public void burst() throws Exception {
+        var futures = new ArrayList<Future<?>>(BURST_SIZE);
+        for (var index = 0; index < BURST_SIZE; index++) {
+            futures.add(executor.submit(this::step));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+    }
+
+    private Void step() throws InterruptedException {
+        Thread.sleep(roundTripMs);
+        connectionPool.acquire();
+        try {
+            Thread.sleep(roundTripMs);
+        } finally {
+            connectionPool.release();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.microservices.orchestrated.paymentservice.config.transport;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for Kafka. Every subscription gets one mailbox per unit of concurrency, records are spread over
+ * them by key so per-order ordering holds like it does per partition, and each mailbox is a lock-free queue drained by
+ * at most one virtual thread at a time. The topic routing table only uses JDK types, so several services started in
+ * one JVM exchange events through the same table when it is provided as the {@value #TOPICS} bean.
+ * <p>
+ * There is no broker to redeliver what is still queued after a restart, so stopping waits for the mailboxes to drain
+ * before the beans behind the listeners are destroyed, much like a Kafka container finishing its records.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "saga.transport", havingValue = "IN_MEMORY")
+public class InMemoryBus implements SmartLifecycle {
+
+    public static final String TOPICS = "inMemoryTopics";
+
+    private static final int DRAIN_LIMIT = 256;
+    private static final long STOP_TIMEOUT_MS = 30000;
+    private static final long STOP_POLL_MS = 10;
+
+    private final ConcurrentMap<String, List<BiConsumer<String, byte[]>>> topics;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("in-memory-bus-", 0).factory());
+    private final Counter undelivered;
+    private final Counter failed;
+    private final List<Mailbox> mailboxes = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public InMemoryBus(@Qualifier(TOPICS) ObjectProvider<ConcurrentMap<String, List<BiConsumer<String, byte[]>>>> topics,
+                       MeterRegistry meterRegistry) {
+        this.topics = topics.getIfAvailable(ConcurrentHashMap::new);
+        this.undelivered = meterRegistry.counter("saga.transport.in_memory.undelivered");
+        this.failed = meterRegistry.counter("saga.transport.in_memory.failed");
+    }
+
+    public void publish(String topic, String key, byte[] payload) {
+        var subscribers = topics.get(topic);
+        if (subscribers == null || subscribers.isEmpty()) {
+            undelivered.increment();
+            return;
+        }
+        subscribers.forEach(subscriber -> subscriber.accept(key, payload));
+    }
+
+    public void subscribe(String topic, int concurrency, Consumer<byte[]> handler) {
+        var subscription = new Mailbox[Math.max(1, concurrency)];
+        for (var index = 0; index < subscription.length; index++) {
+            subscription[index] = new Mailbox(topic, handler);
+        }
+        mailboxes.addAll(List.of(subscription));
+        topics
+                .computeIfAbsent(topic, ignored -> new CopyOnWriteArrayList<>())
+                .add((key, payload) -> subscription[mailboxOf(key, subscription.length)].offer(payload));
+        log.info("Subscribed in-memory listener to topic {} with concurrency {}", topic, subscription.length);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        var deadline = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+        try {
+            while (mailboxes.stream().anyMatch(Mailbox::isBusy) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(STOP_POLL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        var queued = mailboxes.stream().mapToInt(Mailbox::size).sum();
+        if (queued > 0) {
+            log.warn("Stopped in-memory bus with {} records still queued", queued);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private static int mailboxOf(String key, int count) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), count);
+    }
+
+    private final class Mailbox implements Runnable {
+
+        private final String topic;
+        private final Consumer<byte[]> handler;
+        private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private Mailbox(String topic, Consumer<byte[]> handler) {
+            this.topic = topic;
+            this.handler = handler;
+        }
+
+        private boolean isBusy() {
+            return scheduled.get() || !queue.isEmpty();
+        }
+
+        private int size() {
+            return queue.size();
+        }
+
+        private void offer(byte[] payload) {
+            queue.offer(payload);
+            this.schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true) && !executor.isShutdown()) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (var drained = 0; drained < DRAIN_LIMIT; drained++) {
+                var payload = queue.poll();
+                if (payload == null) {
+                    break;
+                }
+                this.deliver(payload);
+            }
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                this.schedule();
+            }
+        }
+
+        private void deliver(byte[] payload) {
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Error: in-memory listener failed on topic {}", topic, e);
+            }
+        }
+    }
+}
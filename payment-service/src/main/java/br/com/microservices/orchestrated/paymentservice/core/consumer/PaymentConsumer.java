@@ -2,36 +2,44 @@ package br.com.microservices.orchestrated.paymentservice.core.consumer;
 
 
 import br.com.microservices.orchestrated.paymentservice.core.service.PaymentService;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.paymentservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import static br.com.microservices.orchestrated.paymentservice.config.kafka.KafkaConfig.COMPENSATION_LISTENER_ID;
+import static br.com.microservices.orchestrated.paymentservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
 @Slf4j
 @Component
 @AllArgsConstructor
 public class PaymentConsumer {
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final PaymentService paymentService;
 
     @KafkaListener(
+            id = FORWARD_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.payment-success}"
+            topics = "${spring.kafka.topic.payment-success}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.payment-success:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerProductValidationSuccessEvent(String payload) {
-        log.info("Receiving event {} from payment-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerProductValidationSuccessEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from payment-success topic", event);
         this.paymentService.realizePayment(event);
     }
 
     @KafkaListener(
+            id = COMPENSATION_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.payment-fail}"
+            topics = "${spring.kafka.topic.payment-fail}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.payment-fail:${spring.kafka.listener.concurrency}}",
+            containerFactory = "compensationKafkaListenerContainerFactory"
     )
-    public void consumerProductValidationFailEvent(String payload) {
-        log.info("Receiving event {} from payment-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerProductValidationFailEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from payment-fail topic", event);
         this.paymentService.realizeRefund(event);
     }
 }
@@ -24,6 +24,7 @@ public class Event {
     private String source;
     private ESagaStatus status;
     private List<History> eventHistory;
+    private long historySequence;
     private LocalDateTime createdAt;
 
     public void addToHistory(History history) {
@@ -0,0 +1,6 @@
+package br.com.microservices.orchestrated.paymentservice.core.enums;
+
+public enum ESagaTransport {
+    KAFKA,
+    IN_MEMORY
+}
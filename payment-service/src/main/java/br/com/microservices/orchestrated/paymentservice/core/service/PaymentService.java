@@ -9,7 +9,7 @@ import br.com.microservices.orchestrated.paymentservice.core.enums.ESagaStatus;
 import br.com.microservices.orchestrated.paymentservice.core.model.Payment;
 import br.com.microservices.orchestrated.paymentservice.core.producer.KafkaProducer;
 import br.com.microservices.orchestrated.paymentservice.core.repository.IPaymentRepository;
-import br.com.microservices.orchestrated.paymentservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.paymentservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -25,7 +25,7 @@ public class PaymentService {
     private static final Double REDUCE_SUM_VALUE = 0.0;
     private static final String CURRENT_SOURCE = "PAYMENT_SERVICE";
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final KafkaProducer producer;
     private final IPaymentRepository paymentRepository;
 
@@ -41,7 +41,7 @@ public class PaymentService {
             handleFailCurrentExecuted(event, e.getMessage());
             log.error("Error trying to make payment!");
         }
-        producer.sendEvent(this.jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
     }
 
     public void realizeRefund(Event event) {
@@ -54,7 +54,7 @@ public class PaymentService {
             addHistory(event, "Rollback executed for payment: ".concat(e.getMessage()));
         }
 
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
     }
 
     private void changePaymentToSuccess(Payment payment) {
@@ -99,7 +99,7 @@ public class PaymentService {
                 .getPayload()
                 .getProducts()
                 .stream()
-                .map(product -> product.getQuantity() * product.getProduct().getUnitValue())
+                .map(product -> product.getQuantity() * product.getProduct().getUnitValues())
                 .reduce(REDUCE_SUM_VALUE, Double::sum);
     }
 
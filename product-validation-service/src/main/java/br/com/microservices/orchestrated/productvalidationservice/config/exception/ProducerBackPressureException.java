@@ -0,0 +1,14 @@
+package br.com.microservices.orchestrated.productvalidationservice.config.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProducerBackPressureException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ProducerBackPressureException(String message) {
+        super(message);
+    }
+}
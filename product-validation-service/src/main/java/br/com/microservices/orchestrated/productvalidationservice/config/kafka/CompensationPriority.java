@@ -0,0 +1,64 @@
+package br.com.microservices.orchestrated.productvalidationservice.config.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static br.com.microservices.orchestrated.productvalidationservice.config.kafka.KafkaConfig.COMPENSATION_LISTENER_ID;
+import static br.com.microservices.orchestrated.productvalidationservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
+/**
+ * Gives the compensation lane priority: while its consumers lag by {@code pause-forward-lag} records or more the
+ * forward listener is paused, and it resumes once the lane has been drained.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompensationPriority {
+
+    private static final String RECORDS_LAG = "records-lag";
+
+    private final KafkaListenerEndpointRegistry registry;
+
+    @Value("${spring.kafka.listener.compensation.pause-forward-lag}")
+    private long pauseForwardLag;
+
+    @Scheduled(fixedDelayString = "${spring.kafka.listener.compensation.priority-check-ms}")
+    public void prioritize() {
+        var compensation = registry.getListenerContainer(COMPENSATION_LISTENER_ID);
+        var forward = registry.getListenerContainer(FORWARD_LISTENER_ID);
+        if (compensation == null || forward == null || !compensation.isRunning()) {
+            return;
+        }
+        var lag = lagOf(compensation);
+        if (lag >= pauseForwardLag && !forward.isPauseRequested()) {
+            log.info("Compensation lane is {} records behind, pausing forward listener", lag);
+            forward.pause();
+        } else if (lag == 0 && forward.isPauseRequested()) {
+            log.info("Compensation lane drained, resuming forward listener");
+            forward.resume();
+        }
+    }
+
+    private static long lagOf(MessageListenerContainer container) {
+        var lag = 0L;
+        for (var metrics : container.metrics().values()) {
+            for (var entry : metrics.entrySet()) {
+                if (RECORDS_LAG.equals(entry.getKey().name())) {
+                    lag += valueOf(entry.getValue());
+                }
+            }
+        }
+        return lag;
+    }
+
+    private static long valueOf(Metric metric) {
+        var value = metric.metricValue();
+        return value instanceof Double number && !number.isNaN() ? number.longValue() : 0L;
+    }
+}
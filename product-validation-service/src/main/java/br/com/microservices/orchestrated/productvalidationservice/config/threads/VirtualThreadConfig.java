@@ -0,0 +1,38 @@
+package br.com.microservices.orchestrated.productvalidationservice.config.threads;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat requests and Kafka listener consumers on virtual threads.
+ * Concurrency stays bounded by the listener concurrency and the connection pools, not by thread count.
+ * The compensation lane gets an executor of its own, so its consumers can be told apart from the forward ones.
+ */
+@Configuration
+@ConditionalOnProperty(value = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    public static final String LISTENER_TASK_EXECUTOR = "kafkaListenerTaskExecutor";
+    public static final String COMPENSATION_LISTENER_TASK_EXECUTOR = "compensationListenerTaskExecutor";
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(LISTENER_TASK_EXECUTOR)
+    public AsyncTaskExecutor kafkaListenerTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("kafka-listener-", 0).factory());
+    }
+
+    @Bean(COMPENSATION_LISTENER_TASK_EXECUTOR)
+    public AsyncTaskExecutor compensationListenerTaskExecutor() {
+        return new SimpleAsyncTaskExecutor(Thread.ofVirtual().name("compensation-listener-", 0).factory());
+    }
+}
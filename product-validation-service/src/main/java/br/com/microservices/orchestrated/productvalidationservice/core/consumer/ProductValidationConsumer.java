@@ -2,36 +2,44 @@ package br.com.microservices.orchestrated.productvalidationservice.core.consumer
 
 
 import br.com.microservices.orchestrated.productvalidationservice.core.service.ProductValidationService;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.productvalidationservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import static br.com.microservices.orchestrated.productvalidationservice.config.kafka.KafkaConfig.COMPENSATION_LISTENER_ID;
+import static br.com.microservices.orchestrated.productvalidationservice.config.kafka.KafkaConfig.FORWARD_LISTENER_ID;
+
 @Slf4j
 @Component
 @AllArgsConstructor
 public class ProductValidationConsumer {
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final ProductValidationService productValidationService;
 
     @KafkaListener(
+            id = FORWARD_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.product-validation-success}"
+            topics = "${spring.kafka.topic.product-validation-success}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.product-validation-success:${spring.kafka.listener.concurrency}}"
     )
-    public void consumerProductValidationSuccessEvent(String payload) {
-        log.info("Receiving event {} from product-validation-success topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerProductValidationSuccessEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from product-validation-success topic", event);
        productValidationService.validateExistingProducts(event);
     }
 
     @KafkaListener(
+            id = COMPENSATION_LISTENER_ID,
             groupId = "${spring.kafka.consumer.group-id}",
-            topics = "${spring.kafka.topic.product-validation-fail}"
+            topics = "${spring.kafka.topic.product-validation-fail}",
+            concurrency = "${spring.kafka.listener.topic-concurrency.product-validation-fail:${spring.kafka.listener.concurrency}}",
+            containerFactory = "compensationKafkaListenerContainerFactory"
     )
-    public void consumerProductValidationFailEvent(String payload) {
-        log.info("Receiving event {} from product-validation-fail topic", payload);
-        var event = jsonUtil.toEvent(payload);
+    public void consumerProductValidationFailEvent(byte[] payload) {
+        var event = eventCodec.decode(payload);
+        log.info("Receiving event {} from product-validation-fail topic", event);
         productValidationService.rollbackEvent(event);
     }
 }
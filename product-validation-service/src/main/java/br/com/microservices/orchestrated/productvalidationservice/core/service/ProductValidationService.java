@@ -8,7 +8,7 @@ import br.com.microservices.orchestrated.productvalidationservice.core.model.Val
 import br.com.microservices.orchestrated.productvalidationservice.core.producer.KafkaProducer;
 import br.com.microservices.orchestrated.productvalidationservice.core.repository.IProductRepository;
 import br.com.microservices.orchestrated.productvalidationservice.core.repository.IValidationRepository;
-import br.com.microservices.orchestrated.productvalidationservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.productvalidationservice.core.utils.EventCodec;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,7 +26,7 @@ public class ProductValidationService {
 
     private static final String CURRENT_SOURCE = "PRODUCT_VALIDATION_SERVICE";
 
-    private final JsonUtil jsonUtil;
+    private final EventCodec eventCodec;
     private final KafkaProducer producer;
     private final IProductRepository productRepository;
     private final IValidationRepository validationRepository;
@@ -42,7 +42,7 @@ public class ProductValidationService {
             log.error("Error trying to validate products: ", e);
         }
 
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
     }
 
     private void validateProductsInformed(Event event) {
@@ -118,7 +118,7 @@ public class ProductValidationService {
         event.setSource(CURRENT_SOURCE);
         event.setStatus(FAIL);
         addHistory(event, "Rollback executed on product validation!");
-        producer.sendEvent(jsonUtil.toJson(event));
+        producer.sendEvent(event.getOrderId(), eventCodec.encode(event), event.getStatus());
 
     }
 
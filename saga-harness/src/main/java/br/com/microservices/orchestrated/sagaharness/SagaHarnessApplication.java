@@ -0,0 +1,77 @@
+package br.com.microservices.orchestrated.sagaharness;
+
+import br.com.microservices.orchestrated.inventoryservice.InventoryServiceApplication;
+import br.com.microservices.orchestrated.orchestratorservice.OrchestratorServiceApplication;
+import br.com.microservices.orchestrated.orderservice.OrderServiceApplication;
+import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
+import br.com.microservices.orchestrated.paymentservice.PaymentServiceApplication;
+import br.com.microservices.orchestrated.productvalidationservice.ProductValidationServiceApplication;
+import br.com.microservices.orchestrated.sagaharness.core.SagaLoadDriver;
+import de.bwaldvogel.mongo.MongoServer;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Boots the whole system as child contexts of one JVM, wired through the in-memory transport, with H2 in place of
+ * Oracle and an in-memory MongoDB server in place of MongoDB, and drives orders through the order-service. Each
+ * service reads its own configuration from {@code classpath:/harness/}, since every service jar ships its own
+ * {@code application.yml}. The order-service starts last, once every listener of its saga is subscribed.
+ */
+@ComponentScan
+@SpringBootConfiguration
+public class SagaHarnessApplication {
+
+    private static final String ORDER = "order";
+    private static final Map<String, Class<?>> SERVICES = new LinkedHashMap<>();
+    private static final String[] SERVICE_DEFAULTS = {
+            "spring.main.log-startup-info=false",
+            "logging.level.root=WARN",
+            "logging.level.br.com.microservices.orchestrated.sagaharness=INFO"
+    };
+
+    static {
+        SERVICES.put("orchestrator", OrchestratorServiceApplication.class);
+        SERVICES.put("product-validation", ProductValidationServiceApplication.class);
+        SERVICES.put("payment", PaymentServiceApplication.class);
+        SERVICES.put("inventory", InventoryServiceApplication.class);
+        SERVICES.put(ORDER, OrderServiceApplication.class);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        var harness = new SpringApplicationBuilder(SagaHarnessApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.config.name=saga-harness")
+                .run(args);
+        var mongo = harness.getBean(MongoServer.class).getLocalAddress();
+        var mongoUri = "harness.mongo.uri=mongodb://%s:%d".formatted(mongo.getHostString(), mongo.getPort());
+        var services = new LinkedHashMap<String, ConfigurableApplicationContext>();
+        try {
+            SERVICES.forEach((name, application) ->
+                    services.put(name, start(harness, name, application, mongoUri, args)));
+            harness.getBean(SagaLoadDriver.class).run(services.get(ORDER).getBean(OrderService.class));
+        } finally {
+            var started = new ArrayList<>(services.values());
+            Collections.reverse(started);
+            started.forEach(ConfigurableApplicationContext::close);
+            harness.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(ConfigurableApplicationContext harness, String name,
+                                                        Class<?> application, String mongoUri, String[] args) {
+        return new SpringApplicationBuilder(application)
+                .parent(harness)
+                .web(WebApplicationType.NONE)
+                .properties(SERVICE_DEFAULTS)
+                .properties(mongoUri, "spring.config.location=classpath:/harness/" + name + ".yml")
+                .run(args);
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.sagaharness.config;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * An in-process server speaking the MongoDB wire protocol, standing in for the order-service's MongoDB the way H2
+ * stands in for the participants' Oracle. It listens on a free local port, handed to the order-service context as
+ * {@code harness.mongo.uri}.
+ */
+@Configuration
+public class InMemoryMongoConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public MongoServer mongoServer() {
+        var server = new MongoServer(new MemoryBackend());
+        server.bind();
+        return server;
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.microservices.orchestrated.sagaharness.config;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.transport.InMemoryBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The topic routing table shared by every service context, so their in-memory buses deliver to each other.
+ */
+@Configuration
+public class InMemoryTopicsConfig {
+
+    @Bean(InMemoryBus.TOPICS)
+    public ConcurrentMap<String, List<BiConsumer<String, byte[]>>> inMemoryTopics() {
+        return new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,212 @@
+package br.com.microservices.orchestrated.sagaharness.core;
+
+import br.com.microservices.orchestrated.orchestratorservice.config.transport.InMemoryBus;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ECodecFormat;
+import br.com.microservices.orchestrated.orchestratorservice.core.enums.ESagaStatus;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.EventCodec;
+import br.com.microservices.orchestrated.orchestratorservice.core.utils.JsonUtil;
+import br.com.microservices.orchestrated.orderservice.core.document.OrderProducts;
+import br.com.microservices.orchestrated.orderservice.core.document.Product;
+import br.com.microservices.orchestrated.orderservice.core.dto.OrderRequestDTO;
+import br.com.microservices.orchestrated.orderservice.core.service.OrderService;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Closed-loop load: keeps {@code max-in-flight} sagas running, placing a new order through the order-service whenever
+ * one ends, and times each saga from the order being placed until the orchestrator publishes it on notify-ending. A
+ * warm-up run is discarded. Each run also reports the heap allocated by the whole JVM and the collections it caused,
+ * since the five services share the harness process.
+ */
+@Slf4j
+@Component
+public class SagaLoadDriver {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ConcurrentMap<String, List<BiConsumer<String, byte[]>>> topics;
+    private final EventCodec eventCodec;
+    private volatile Run current;
+
+    @Value("${harness.orders}")
+    private int orders;
+    @Value("${harness.warmup-orders}")
+    private int warmupOrders;
+    @Value("${harness.max-in-flight}")
+    private int maxInFlight;
+    @Value("${harness.timeout-seconds}")
+    private long timeoutSeconds;
+    @Value("${harness.topic.notify-ending}")
+    private String notifyEndingTopic;
+
+    public SagaLoadDriver(@Qualifier(InMemoryBus.TOPICS) ConcurrentMap<String, List<BiConsumer<String, byte[]>>> topics) {
+        this.topics = topics;
+        var mapper = JsonMapper
+                .builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        this.eventCodec = new EventCodec(new JsonUtil(mapper), ECodecFormat.JSON);
+    }
+
+    public void run(OrderService orderService) throws InterruptedException {
+        topics
+                .computeIfAbsent(notifyEndingTopic, ignored -> new CopyOnWriteArrayList<>())
+                .add(this::sagaEnded);
+        this.drive(orderService, "warm-up", warmupOrders);
+        this.drive(orderService, "measured", orders);
+    }
+
+    private void drive(OrderService orderService, String name, int count) throws InterruptedException {
+        var run = new Run(count, maxInFlight);
+        current = run;
+        var resourcesAtStart = Resources.sample();
+        var startedAt = System.nanoTime();
+        for (var index = 0; index < count; index++) {
+            if (!run.permits.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("{}: no saga finished within {}s, stopping", name, timeoutSeconds);
+                break;
+            }
+            var placedAt = System.nanoTime();
+            var order = orderService.createOrder(sampleOrder());
+            run.started.incrementAndGet();
+            run.marks.merge(order.getId(), Mark.start(placedAt), (ended, started) -> run.record(started, ended));
+        }
+        run.remaining.await(timeoutSeconds, TimeUnit.SECONDS);
+        var elapsedNanos = System.nanoTime() - startedAt;
+        var used = Resources.sample().minus(resourcesAtStart);
+        current = null;
+        this.report(name, run, elapsedNanos, used);
+    }
+
+    /**
+     * The ending can reach the driver before {@code createOrder} returned the order's id, so whichever of the start
+     * and the end arrives second records the saga.
+     */
+    private void sagaEnded(String key, byte[] payload) {
+        var endedAt = System.nanoTime();
+        var run = current;
+        if (run == null) {
+            return;
+        }
+        var event = eventCodec.decode(payload);
+        var ending = Mark.end(endedAt, event != null && ESagaStatus.SUCCESS.equals(event.getStatus()));
+        run.marks.merge(key, ending, (started, ended) -> run.record(started, ended));
+    }
+
+    private void report(String name, Run run, long elapsedNanos, Resources used) {
+        var recorded = run.recorded.get();
+        var latencies = Arrays.copyOf(run.latencies, recorded);
+        Arrays.sort(latencies);
+        var seconds = elapsedNanos / 1e9;
+        log.info("{}: {} sagas in {} s ({} sagas/s), {} succeeded, {} failed, {} unfinished",
+                name, recorded, format(seconds), format(recorded / seconds),
+                run.succeeded.sum(), run.failed.sum(), run.started.get() - recorded);
+        log.info("{}: {} MB allocated ({} MB/s), {} GCs taking {} ms",
+                name, format(used.allocatedBytes() / 1e6), format(used.allocatedBytes() / 1e6 / seconds),
+                used.gcCount(), used.gcMillis());
+        if (recorded == 0) {
+            return;
+        }
+        log.info("{}: {} KB allocated per saga", name, format(used.allocatedBytes() / 1e3 / recorded));
+        var percentiles = new StringBuilder();
+        for (var percentile : PERCENTILES) {
+            var index = (int) Math.min(recorded - 1, Math.ceil(percentile / 100 * recorded) - 1);
+            percentiles.append(" p").append(percentile).append('=').append(millis(latencies[Math.max(0, index)]));
+        }
+        log.info("{}: saga latency ms{} max={}", name, percentiles, millis(latencies[recorded - 1]));
+    }
+
+    private static String millis(long nanos) {
+        return format(nanos / 1e6);
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private static OrderRequestDTO sampleOrder() {
+        return new OrderRequestDTO(List.of(
+                new OrderProducts(new Product("COMIC_BOOKS", 15.50), 3),
+                new OrderProducts(new Product("BOOKS", 9.90), 1),
+                new OrderProducts(new Product("MOVIES", 5.25), 2)
+        ));
+    }
+
+    private record Mark(long at, boolean succeeded) {
+
+        private static Mark start(long startedAt) {
+            return new Mark(startedAt, false);
+        }
+
+        private static Mark end(long endedAt, boolean succeeded) {
+            return new Mark(endedAt, succeeded);
+        }
+    }
+
+    private record Resources(long allocatedBytes, long gcCount, long gcMillis) {
+
+        private static Resources sample() {
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            var gcCount = 0L;
+            var gcMillis = 0L;
+            for (var collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+            return new Resources(threads.getTotalThreadAllocatedBytes(), gcCount, gcMillis);
+        }
+
+        private Resources minus(Resources earlier) {
+            return new Resources(allocatedBytes - earlier.allocatedBytes, gcCount - earlier.gcCount, gcMillis - earlier.gcMillis);
+        }
+    }
+
+    private static final class Run {
+
+        private final Semaphore permits;
+        private final CountDownLatch remaining;
+        private final ConcurrentMap<String, Mark> marks = new ConcurrentHashMap<>();
+        private final AtomicInteger started = new AtomicInteger();
+        private final long[] latencies;
+        private final AtomicInteger recorded = new AtomicInteger();
+        private final LongAdder succeeded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        private Run(int count, int maxInFlight) {
+            this.permits = new Semaphore(maxInFlight);
+            this.remaining = new CountDownLatch(count);
+            this.latencies = new long[count];
+        }
+
+        private Mark record(Mark start, Mark end) {
+            latencies[recorded.getAndIncrement()] = end.at() - start.at();
+            if (end.succeeded()) {
+                succeeded.increment();
+            } else {
+                failed.increment();
+            }
+            permits.release();
+            remaining.countDown();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+INSERT INTO inventory(product_code, available) VALUES('COMIC_BOOKS', 1000000000);
+INSERT INTO inventory(product_code, available) VALUES('BOOKS', 1000000000);
+INSERT INTO inventory(product_code, available) VALUES('MOVIES', 1000000000);
+INSERT INTO inventory(product_code, available) VALUES('MUSIC', 1000000000);